@@ -1,6 +1,7 @@
 package main.controllers;
 
 import main.entities.Event;
+import main.entities.Session;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,10 +18,25 @@ import java.util.UUID;
 public class AttendeeController extends UserController {
 
 
+    /**
+     * Constructor of AttendeeController for the user logged in at the console.
+     *
+     * @param programController pre-defined programController
+     */
     public AttendeeController(ProgramController programController) {
         super(programController);
     }
 
+    /**
+     * Constructor of AttendeeController for the user of a session.
+     *
+     * @param programController pre-defined programController
+     * @param session           of the logged in user
+     */
+    public AttendeeController(ProgramController programController, Session session) {
+        super(programController, session);
+    }
+
     /**
      * Returns a list of events in the conference.
      */
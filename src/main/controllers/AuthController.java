@@ -1,7 +1,9 @@
 package main.controllers;
 
+import main.entities.Session;
 import main.entities.User;
 import main.screencontrollers.*;
+import main.usecases.SessionManager;
 import main.usecases.UserInformationManager;
 import main.usecases.UsersManager;
 
@@ -9,12 +11,15 @@ import java.util.UUID;
 
 /**
  * The AuthController handles authentication, maintains a record of who is logged in, and
- * returns the appropriate controller
+ * returns the appropriate controller. Every login opens a session in a session table, so that
+ * many users can be logged in at once, each known by the token of their session; the console
+ * keeps the token of its own login as the current session.
  */
 
 public class AuthController {
 
-    private String loggedInUser = null;
+    private String currentSession = null;
+    private final SessionManager sessionManager;
     private UsersManager usersManager;
     private ProgramController programController;
 
@@ -22,8 +27,7 @@ public class AuthController {
      * Default constructor for when there is no pre-defined UsersManager
      */
     public AuthController(ProgramController programController) {
-        this.usersManager = new UsersManager();
-        this.programController = programController;
+        this(programController, new UsersManager());
     }
 
     /**
@@ -32,8 +36,20 @@ public class AuthController {
      * @param usersManager pre-defined UsersManager
      */
     public AuthController(ProgramController programController, UsersManager usersManager) {
+        this(programController, usersManager, new SessionManager());
+    }
+
+    /**
+     * Constructor for when there is a pre-defined UsersManager and SessionManager
+     *
+     * @param usersManager   pre-defined UsersManager
+     * @param sessionManager pre-defined SessionManager
+     */
+    public AuthController(ProgramController programController, UsersManager usersManager,
+                          SessionManager sessionManager) {
         this.usersManager = usersManager;
-        this.programController=programController;
+        this.programController = programController;
+        this.sessionManager = sessionManager;
     }
 
     /**
@@ -53,15 +69,69 @@ public class AuthController {
      * @return whether or not the user is logged in
      */
     public boolean login(String username, String password) {
-        this.loggedInUser = this.usersManager.authenticateUser(username, password);
+        this.sessionManager.closeSession(this.currentSession);
+        //the console user stays logged in until they log out, however long they sit on a screen
+        String userId = this.usersManager.authenticateUser(username, password);
+        this.currentSession = userId == null ? null : this.sessionManager.openSession(userId, false);
         return this.isLoggedIn();
     }
 
     /**
-     * Logs out by resetting the current logged in user
+     * Logs in a user in a new session, leaving every other session as it is
+     *
+     * @param username Username
+     * @param password Password
+     * @return the token of the new session, or null if the username or password is wrong
+     */
+    public String openSession(String username, String password) {
+        String userId = this.usersManager.authenticateUser(username, password);
+        return userId == null ? null : this.sessionManager.openSession(userId);
+    }
+
+    /**
+     * Fetches an open session, which counts as using it
+     *
+     * @param token of the session
+     * @return the session, or null if it is not open or has expired
+     */
+    public Session fetchSession(String token) {
+        return this.sessionManager.getSession(token);
+    }
+
+    /**
+     * Fetches the session of the console login
+     *
+     * @return the current session, or null if no one is logged in
+     */
+    public Session fetchCurrentSession() {
+        return this.sessionManager.getSession(this.currentSession);
+    }
+
+    /**
+     * Logs out of a session
+     *
+     * @param token of the session
+     * @return whether or not the session was open
+     */
+    public boolean closeSession(String token) {
+        return this.sessionManager.closeSession(token);
+    }
+
+    /**
+     * Get the session table
+     *
+     * @return the SessionManager
+     */
+    public SessionManager getSessionManager() {
+        return this.sessionManager;
+    }
+
+    /**
+     * Logs out by closing the current session
      */
     public void logout() {
-        this.loggedInUser = null;
+        this.sessionManager.closeSession(this.currentSession);
+        this.currentSession = null;
         this.programController.setNewScreenController(new AnonymousScreenController(this.programController));
         this.programController.clearScreenHistory();
     }
@@ -72,7 +142,7 @@ public class AuthController {
      * @return whether or not the user is logged in
      */
     public boolean isLoggedIn() {
-        return (this.loggedInUser != null);
+        return (this.fetchCurrentSession() != null);
     }
 
     /**
@@ -81,7 +151,8 @@ public class AuthController {
      * @return String of the current logged in user
      */
     public String fetchLoggedInUser() {
-        return this.loggedInUser;
+        Session session = this.fetchCurrentSession();
+        return session == null ? null : session.getUserId();
     }
 
     /**
@@ -97,7 +168,7 @@ public class AuthController {
     }
 
     public ScreenController getScreenController() {
-        User currentUser = this.usersManager.fetchUser(this.loggedInUser);
+        User currentUser = this.usersManager.fetchUser(this.fetchLoggedInUser());
         UserInformationManager userInfo = new UserInformationManager(currentUser);
         String userRole = userInfo.getType();
 
@@ -1,11 +1,15 @@
 package main.controllers;
 
 import main.entities.Event;
+import main.entities.Room;
 import main.usecases.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.List;
 
 /**
  * The EventController handles event management: create and cancel an event; add or remove a user from
@@ -19,6 +23,8 @@ public class EventController {
     private final EventsManager eventsManager;
     private final UsersManager usersManager;
     private final RoomManager roomManager;
+    private final WaitlistManager waitlistManager;
+    private final ProgramController programController;
 
 
     /**
@@ -28,6 +34,8 @@ public class EventController {
         this.eventsManager = programController.getEventsManager();
         this.usersManager = programController.getUsersManager();
         this.roomManager = programController.getRoomManager();
+        this.waitlistManager = programController.getWaitlistManager();
+        this.programController = programController;
     }
 
     /**
@@ -39,13 +47,41 @@ public class EventController {
         return this.eventsManager.scheduleEvent(eventbuilder);
     }
 
+    /**
+     * Creating a batch of events to the schedule(stored in EventsManager)
+     * @param eventbuilders that create the events
+     * @return a report of which events were successfully created
+     */
+    public ScheduleReport createEvents(List<EventBuilder> eventbuilders){
+        return this.eventsManager.scheduleEvents(eventbuilders);
+    }
+
+    /**
+     * Choosing a time and room for each event that only has a title and speaker, then creating them
+     * @param eventbuilders that create the events, without time or room
+     * @param firstDay of the conference
+     * @param days the events can be spread over
+     * @param timeBudgetMillis to keep searching if not every event fits right away
+     * @return a report of which events were successfully created
+     */
+    public ScheduleReport autoScheduleEvents(List<EventBuilder> eventbuilders, LocalDate firstDay, int days,
+                                             long timeBudgetMillis){
+        ScheduleSolver solver = new ScheduleSolver(this.eventsManager, this.roomManager);
+        solver.solve(eventbuilders, firstDay, days, timeBudgetMillis);
+        return this.eventsManager.scheduleEvents(eventbuilders);
+    }
+
     /**
      * Removing an event from the schedule(stored in EventsManager)
      * @param eventId of an Event
      * @return true iff the event is successfully removed
      */
     public boolean removeEvent(String eventId){
-        return this.eventsManager.removeEvent(eventId);
+        if (this.eventsManager.removeEvent(eventId)) {
+            this.waitlistManager.removeWaitlist(eventId);
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -81,8 +117,7 @@ public class EventController {
      * @return ture iff the user is successfully added
      */
     public boolean addUser(String eventId, String userId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventInfoManager = new EventInfoManager(eventId, schedule);
+        EventInfoManager eventInfoManager = new EventInfoManager(eventId, this.eventsManager);
         return eventInfoManager.addUser(userId);
     }
 
@@ -93,33 +128,111 @@ public class EventController {
      * @return ture iff the user is successfully removed
      */
     public boolean removeUser(String eventId, String userId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventInfoManager = new EventInfoManager(eventId, schedule);
+        EventInfoManager eventInfoManager = new EventInfoManager(eventId, this.eventsManager);
         return eventInfoManager.removeUser(userId);
     }
 
     /**
-     * A sign up method for an attendee User
+     * A sign up method for an attendee User, limited by the capacity of the room. Free seats go to
+     * the attendees on the waitlist first, so a newcomer only gets a seat once nobody is waiting.
      * @param eventId of an Event that an attendee wants to attend
      * @param userId of the attendee User
      * @return true iff the attendee User has successfully signed up the spot
      */
     public boolean signupEvent(String eventId, String userId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventinfomanager = new EventInfoManager(eventId, schedule);
-        return eventinfomanager.addUser(userId);
+        EventInfoManager eventinfomanager = new EventInfoManager(eventId, this.eventsManager);
+        Room room = this.roomManager.getRoomGivenId(eventinfomanager.getEvent().getRoomID());
+        if (room == null) {
+            return false;
+        }
+        promoteFromWaitlist(eventinfomanager);
+        if (this.waitlistManager.getWaitlistSize(eventId) > 0) {
+            return false;
+        }
+        return eventinfomanager.addUser(userId, room.getCapacity());
     }
 
     /**
-     * A cancellation method for an attendee User
+     * A cancellation method for an attendee User. Cancelling takes the attendee off the waitlist if
+     * they are waiting, otherwise the freed seat goes to the first attendee on the waitlist.
      * @param eventId of an Event that an attendee wants to cancel a spot
      * @param userId of the attendee User
      * @return true iff the attendee User has successfully cancelled the spot
      */
     public boolean cancelEvent(String eventId, String userId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventinfomanager = new EventInfoManager(eventId, schedule);
-        return eventinfomanager.removeUser(userId);
+        if (this.waitlistManager.leaveWaitlist(eventId, userId)) {
+            return true;
+        }
+        EventInfoManager eventinfomanager = new EventInfoManager(eventId, this.eventsManager);
+        if (!eventinfomanager.removeUser(userId)) {
+            return false;
+        }
+        promoteFromWaitlist(eventinfomanager);
+        return true;
+    }
+
+    /**
+     * Return true iff every seat of the event is taken
+     * @param eventId of an Event
+     * @return true iff the event is full
+     */
+    public boolean isEventFull(String eventId){
+        Event event = getSingleEvent(eventId);
+        Room room = this.roomManager.getRoomGivenId(event.getRoomID());
+        return room != null && event.getAttendeeCount() >= room.getCapacity();
+    }
+
+    /**
+     * Add an attendee User to the end of the waitlist of a full event. Events with a free seat have
+     * no waitlist to join, the attendee signs up instead.
+     * @param eventId of an Event that an attendee wants to wait for
+     * @param userId of the attendee User
+     * @return true iff the attendee User is now waiting for the event
+     */
+    public boolean joinWaitlist(String eventId, String userId){
+        if (getSingleEvent(eventId).hasAttendee(userId) || !isEventFull(eventId)) {
+            return false;
+        }
+        return this.waitlistManager.joinWaitlist(eventId, userId);
+    }
+
+    /**
+     * Return the number of attendees waiting for an event
+     * @param eventId of an Event
+     * @return the size of the waitlist
+     */
+    public int getWaitlistSize(String eventId){
+        return this.waitlistManager.getWaitlistSize(eventId);
+    }
+
+    /**
+     * Give freed seats to the front of the waitlist, and let the promoted attendee know through a
+     * message from the speaker of the event. Without a speaker there is nobody to send it from.
+     * @param eventinfomanager of the Event that has a free seat
+     */
+    private void promoteFromWaitlist(EventInfoManager eventinfomanager){
+        Event event = eventinfomanager.getEvent();
+        Room room = this.roomManager.getRoomGivenId(event.getRoomID());
+        if (room == null) {
+            return;
+        }
+        String next;
+        while ((next = this.waitlistManager.peekWaitlist(event.getId())) != null) {
+            if (eventinfomanager.addUser(next, room.getCapacity())) {
+                this.waitlistManager.leaveWaitlist(event.getId(), next);
+                if (event.getSpeakerID() != null) {
+                    this.programController.getMessageController().sendMessage(event.getSpeakerID(), next,
+                            "A seat opened up and you are now signed up for " + event.getTitle() + ".");
+                }
+                continue;
+            }
+            if (!event.hasAttendee(next)) {
+                // the seat was taken in the meantime
+                return;
+            }
+            // already signed up some other way, so no longer waiting
+            this.waitlistManager.leaveWaitlist(event.getId(), next);
+        }
     }
 
     /**
@@ -127,14 +240,57 @@ public class EventController {
      * @return a string representation of all the events scheduled
      */
     public String getEventsInfo(){
-        String s = "Events: \n";
-        int num = 1;
-        for (String i: this.eventsManager.getSchedule().keySet()){
-            String eToString = "Event #" + num + " "+getSingleEventInfo(i);
-            num += 1;
-            s += eToString;
+        StringBuilder s = new StringBuilder("Events: \n");
+        try {
+            writeEventsPage(s, 0, getEventCount());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return s.toString();
+    }
+
+    /**
+     * An Attendee is able to view one page of the Events scheduled as a string
+     * @param cursor index of the first event on the page, starting from 0
+     * @param pageSize the most events on the page
+     * @return a string representation of the events on the page
+     */
+    public String getEventsPage(int cursor, int pageSize){
+        StringBuilder s = new StringBuilder();
+        try {
+            writeEventsPage(s, cursor, pageSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Write one page of the Events scheduled to out, one event after another, numbered from 1 in
+     * schedule order so the numbers match getEventId
+     * @param out to write the events to
+     * @param cursor index of the first event on the page, starting from 0
+     * @param pageSize the most events on the page
+     * @return the cursor of the next page, which equals getEventCount() after the last page
+     * @throws IOException if out cannot be written to
+     */
+    public int writeEventsPage(Appendable out, int cursor, int pageSize) throws IOException {
+        int end = Math.min(this.eventsManager.getEventCount(), cursor + pageSize);
+        for (int i = cursor; i < end; i++){
+            out.append("Event #").append(String.valueOf(i + 1)).append(" ");
+            new EventInfoManager(this.eventsManager.getEventIdAt(i), this.eventsManager, roomManager, usersManager)
+                    .appendTo(out);
+            out.append("\n");
         }
-        return s;
+        return end;
+    }
+
+    /**
+     * Return the number of events scheduled
+     * @return the number of events
+     */
+    public int getEventCount(){
+        return this.eventsManager.getEventCount();
     }
 
     /**
@@ -143,8 +299,7 @@ public class EventController {
      * @return a string representation of the event
      */
     public String getSingleEventInfo(String eventId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventinfomanager = new EventInfoManager(eventId, schedule, roomManager, usersManager);
+        EventInfoManager eventinfomanager = new EventInfoManager(eventId, this.eventsManager, roomManager, usersManager);
         return eventinfomanager.toString();
     }
 
@@ -154,8 +309,7 @@ public class EventController {
      * @return an Event
      */
     public Event getSingleEvent(String eventId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventinfomanager = new EventInfoManager(eventId, schedule);
+        EventInfoManager eventinfomanager = new EventInfoManager(eventId, this.eventsManager);
         return eventinfomanager.getEvent();
     }
 
@@ -166,8 +320,7 @@ public class EventController {
      * @return ture iff the speaker is successfully added to the event
      */
     public boolean addSpeaker(String eventId, String speakerId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventinfomanager = new EventInfoManager(eventId, schedule);
+        EventInfoManager eventinfomanager = new EventInfoManager(eventId, this.eventsManager);
         return eventinfomanager.addSpeaker(speakerId);
     }
 
@@ -178,8 +331,7 @@ public class EventController {
      * @return true iff the speaker is successfully removed from the event
      */
     public boolean removeSpeaker(String eventId, String speakerId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventinfomanager = new EventInfoManager(eventId, schedule);
+        EventInfoManager eventinfomanager = new EventInfoManager(eventId, this.eventsManager);
         return eventinfomanager.removeSpeaker(speakerId);
     }
 
@@ -191,8 +343,7 @@ public class EventController {
      * @return true iff the new information of the Event is updated
      */
     public boolean updateEventInfo(String eventId, LocalDateTime newTime, String newRoomId){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        EventInfoManager eventinfomanager = new EventInfoManager(eventId, schedule);
+        EventInfoManager eventinfomanager = new EventInfoManager(eventId, this.eventsManager);
         return eventinfomanager.updateEventInfo(newTime, newRoomId);
     }
 
@@ -202,8 +353,6 @@ public class EventController {
      * @return the event id
      */
     public String getEventId(int index){
-        Map<String, Event> schedule = this.eventsManager.getSchedule();
-        ArrayList<String> eventIds = new ArrayList<>(schedule.keySet());
-        return eventIds.get(index);
+        return this.eventsManager.getEventIdAt(index);
     }
 }
@@ -4,7 +4,9 @@ import main.usecases.InboxManager;
 import main.usecases.MessageManager;
 import main.usecases.UsersManager;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Flow;
 
 public class InboxController {
     MessageManager messageManager;
@@ -26,6 +28,91 @@ public class InboxController {
         return messageDict;
     }
 
+    /**
+     * Get a page of the messages of a user, newest first, with the text of each message.
+     *
+     * @param userId of the user
+     * @param before position just after the newest message of the page
+     * @param limit  the most messages on the page
+     * @return the messages on the page by id, newest first
+     */
+    public Map<String, String> getMessagesOfUser(String userId, int before, int limit) {
+        Map<String, String> messageDict = new LinkedHashMap<>();
+        for (String messageId : this.inboxManager.getMessagesOfUserBefore(userId, before, limit)) {
+            messageDict.put(messageId, getMessageString(messageId));
+        }
+        return messageDict;
+    }
+
+    public int getMessageCountOfUser(String userId) {
+        return this.inboxManager.getMessageCountOfUser(userId);
+    }
+
+    public int getUnreadCountOfUser(String userId) {
+        return this.inboxManager.getUnreadCountOfUser(userId);
+    }
+
+    /**
+     * Get the oldest unread messages of a user, oldest first, with the text of each message, and
+     * mark them as read.
+     *
+     * @param userId of the user
+     * @param limit  the most messages to get
+     * @return the messages that were unread by id, oldest first
+     */
+    public Map<String, String> readUnreadMessagesOfUser(String userId, int limit) {
+        Map<String, String> messageDict = new LinkedHashMap<>();
+        for (String messageId : this.inboxManager.readUnreadMessagesOfUser(userId, limit)) {
+            messageDict.put(messageId, getMessageString(messageId));
+        }
+        return messageDict;
+    }
+
+    public void markPageOfUserRead(String userId, int from, int to) {
+        this.inboxManager.markPageOfUserRead(userId, from, to);
+    }
+
+    public Flow.Publisher<String> getNotificationsOfUser(String userId) {
+        return this.inboxManager.getNotificationsOfUser(userId);
+    }
+
+    /**
+     * Search the messages of a user by keyword, sender and date range, newest first.
+     *
+     * @param userId         of the user
+     * @param keywords       every word of which must be in the message, or blank for any text
+     * @param senderUsername the username of the sender, or null for any sender
+     * @param from           the earliest date, or null for no earliest date
+     * @param to             the latest date, or null for no latest date
+     * @param limit          the most messages to get
+     * @return the matching messages by id, newest first
+     */
+    public Map<String, String> searchMessagesOfUser(String userId, String keywords, String senderUsername,
+                                                    LocalDateTime from, LocalDateTime to, int limit) {
+        Map<String, String> messageDict = new LinkedHashMap<>();
+        String senderId = null;
+        if (senderUsername != null) {
+            senderId = this.usersManager.getIDFromUsername(senderUsername);
+            if (senderId == null) {
+                return messageDict;
+            }
+        }
+        List<String> found;
+        if (keywords == null || keywords.isBlank()) {
+            //without keywords the index can not narrow things down, so read the inbox newest first
+            String sender = senderId;
+            found = this.inboxManager.filterMessagesOfUser(userId,
+                    index -> this.messageManager.matchesAt(index, sender, from, to), limit);
+        } else {
+            BitSet matches = this.messageManager.searchMessages(keywords, senderId, from, to);
+            found = this.inboxManager.filterMessagesOfUser(userId, matches, limit);
+        }
+        for (String messageId : found) {
+            messageDict.put(messageId, getMessageString(messageId));
+        }
+        return messageDict;
+    }
+
     public String getMessageString(String messageId) {
         String messageText = this.messageManager.retrieveMessageText(messageId);
         String messageDate = this.messageManager.retrieveMessageDate(messageId).toString();
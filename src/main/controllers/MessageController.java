@@ -1,11 +1,17 @@
 package main.controllers;
 
 import main.entities.Event;
+import main.entities.Role;
+import main.usecases.BroadcastDelivery;
+import main.usecases.BroadcastPipeline;
 import main.usecases.InboxManager;
 import main.usecases.MessageManager;
 import main.usecases.UsersManager;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -22,6 +28,7 @@ public class MessageController {
     EventController eventController;
     UsersManager usersManager;
     InboxManager inboxManager;
+    BroadcastPipeline broadcastPipeline;
 
 
     public MessageController(ProgramController programController) {
@@ -29,6 +36,7 @@ public class MessageController {
         this.eventController = programController.getEventController();
         this.usersManager = programController.getUsersManager();
         this.inboxManager = programController.getInboxManager();
+        this.broadcastPipeline = programController.getBroadcastPipeline();
     }
 
     /**
@@ -40,38 +48,59 @@ public class MessageController {
      */
     public void sendMessage(String sender, String receiver, String context) {
         String newMessage = messageManager.createMessage(context, sender);
-        inboxManager.putMessageInToInbox(newMessage, receiver);
+        inboxManager.putMessageInToInbox(newMessage, sender, messageManager.retrieveMessageDate(newMessage), receiver);
     }
 
     /**
-     * Send the same message to all users inside the list
+     * Send the same message to all users inside the list. The message is stored once and every
+     * receiver's inbox holds a reference to it. The inboxes are written in the background.
      *
      * @param sender    the sender of the message
      * @param receivers a list of receivers
      * @param context   the context of the message
+     * @return a handle to follow the delivery, or null if there are no receivers
      */
-    public void broadCast(String sender, List<String> receivers, String context) {
-        for (String receiver : receivers) {
-            this.sendMessage(sender, receiver, context);
+    public BroadcastDelivery broadCast(String sender, Collection<String> receivers, String context) {
+        if (receivers.isEmpty()) {
+            return null;
         }
+        String newMessage = messageManager.createMessage(context, sender);
+        return broadcastPipeline.submit(newMessage, sender, messageManager.retrieveMessageDate(newMessage), receivers);
+    }
+
+    /**
+     * Find users the sender could message whose username starts with a prefix, in username order.
+     *
+     * @param sender of the message
+     * @param prefix of the usernames
+     * @param limit  the most users to find
+     * @return the ids of the users
+     */
+    public List<String> findReceivers(String sender, String prefix, int limit) {
+        List<String> receivers = usersManager.findUsersByPrefix(prefix, null, limit + 1);
+        receivers.remove(sender);
+        return receivers.size() > limit ? receivers.subList(0, limit) : receivers;
     }
 
     /**
-     * get a list of users that could be messaged by an attendee, which is all other users except the sender
+     * get the users that could be messaged by an attendee, which is all other users except the sender.
+     * The users are read from the shared snapshot of all users as they are iterated, without a copy.
      *
-     * @return the list of user's id which could be messaged by an attendee.
+     * @return a read-only view of the ids of the users which could be messaged by an attendee.
      */
-    public List<String> receiversForAttendeeAndOrganizer(String sender) {
-        List<String> receivers = new ArrayList<>();
-        // Search all users
-        for (String receiver : usersManager.getAllUsers()) {
-            // check if he is an organizer
-            if (receiver != sender) {
-                receivers.add(receiver);
+    public Collection<String> receiversForAttendeeAndOrganizer(String sender) {
+        List<String> users = usersManager.getAllUsers();
+        return new AbstractCollection<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return users.stream().filter(receiver -> !receiver.equals(sender)).iterator();
             }
-        }
-        return receivers;
 
+            @Override
+            public int size() {
+                return users.contains(sender) ? users.size() - 1 : users.size();
+            }
+        };
     }
 
     public ArrayList<Event> eventsOfSpeaker(String speaker) {
@@ -91,19 +120,29 @@ public class MessageController {
         return events;
     }
 
+    /**
+     * get the users who have messaged the speaker, most recent first
+     *
+     * @param speaker the speaker
+     * @return the list of user's id which the speaker could reply to
+     */
     public ArrayList<String> replyOptionsForSpeaker(String speaker) {
-        ArrayList<String> ret = new ArrayList<>();
-        for (String message : inboxManager.getMessagesOfUser(speaker)) {
-            if (!ret.contains(messageManager.retrieveMessageSender(message))) {
-                ret.add(messageManager.retrieveMessageSender(message));
-            }
-        }
-        return ret;
+        return new ArrayList<>(inboxManager.getSendersOfUser(speaker));
     }
 
     public ArrayList<String> replyOptionsForSpeakerInString(String speaker) {
+        return replyOptionsInString(replyOptionsForSpeaker(speaker));
+    }
+
+    /**
+     * get the usernames of a list of reply options
+     *
+     * @param senders the list of user's id returned by replyOptionsForSpeaker
+     * @return the usernames of the users in the same order
+     */
+    public ArrayList<String> replyOptionsInString(List<String> senders) {
         ArrayList<String> ret = new ArrayList<>();
-        for (String sender : replyOptionsForSpeaker(speaker)) {
+        for (String sender : senders) {
             ret.add(usersManager.fetchUser(sender).getUsername());
         }
         return ret;
@@ -115,9 +154,10 @@ public class MessageController {
      *
      * @param sender  the sender
      * @param context the context of the message
+     * @return a handle to follow the delivery, or null if there are no receivers
      */
-    public void broadCastToAll(String sender, String context) {
-        this.broadCast(sender, this.receiversForAttendeeAndOrganizer(sender), context);
+    public BroadcastDelivery broadCastToAll(String sender, String context) {
+        return this.broadCast(sender, this.receiversForAttendeeAndOrganizer(sender), context);
     }
 
     /**
@@ -125,16 +165,12 @@ public class MessageController {
      *
      * @param sender  the sender
      * @param context the context of the message
+     * @return a handle to follow the delivery, or null if there are no receivers
      */
-    public void broadCastToAttendees(String sender, String context) {
-        List<String> attendees = new ArrayList<>();
-        List<String> receivers = this.receiversForAttendeeAndOrganizer(sender);
-        for (String user : receivers) {
-            if (this.usersManager.fetchRole(user).equals("Attendee")) {
-                attendees.add(user);
-            }
-        }
-        this.broadCast(sender, attendees, context);
+    public BroadcastDelivery broadCastToAttendees(String sender, String context) {
+        List<String> attendees = this.usersManager.getUsersWithRole(Role.ATTENDEE);
+        attendees.remove(sender);
+        return this.broadCast(sender, attendees, context);
     }
 
 
@@ -143,16 +179,12 @@ public class MessageController {
      *
      * @param sender  the sender
      * @param context the context of the message
+     * @return a handle to follow the delivery, or null if there are no receivers
      */
-    public void broadCastToSpeakers(String sender, String context) {
-        List<String> speakers = new ArrayList<>();
-        List<String> receivers = this.receiversForAttendeeAndOrganizer(sender);
-        for (String user : receivers) {
-            if (this.usersManager.fetchRole(user).equals("Speaker")) {
-                speakers.add(user);
-            }
-        }
-        this.broadCast(sender, speakers, context);
+    public BroadcastDelivery broadCastToSpeakers(String sender, String context) {
+        List<String> speakers = this.usersManager.getUsersWithRole(Role.SPEAKER);
+        speakers.remove(sender);
+        return this.broadCast(sender, speakers, context);
     }
 
     /**
@@ -163,7 +195,7 @@ public class MessageController {
      * @param context the context of the string
      */
     public void broadCastForSpeaker(String event, String speaker, String context) {
-        List<String> receivers = eventController.getSingleEvent(event).getAttendeesID();
+        Collection<String> receivers = eventController.getSingleEvent(event).getAttendeesID();
         this.broadCast(speaker, receivers, context);
     }
 
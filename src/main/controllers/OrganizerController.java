@@ -1,13 +1,14 @@
 package main.controllers;
 
+import main.entities.Role;
 import main.entities.Room;
+import main.entities.Session;
 import main.entities.User;
 import main.usecases.EventBuilder;
 import main.usecases.RoomManager;
 import main.usecases.UsersManager;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,12 +28,22 @@ public class OrganizerController extends AttendeeController {
 
 
     /**
-     * Constructor of OrganizerController for a logged in user.
+     * Constructor of OrganizerController for the user logged in at the console.
      *
      * @param programController pre-defined programController
      */
     public OrganizerController(ProgramController programController) {
-        super(programController);
+        this(programController, programController.getAuthController().fetchCurrentSession());
+    }
+
+    /**
+     * Constructor of OrganizerController for the user of a session.
+     *
+     * @param programController pre-defined programController
+     * @param session           of the logged in user
+     */
+    public OrganizerController(ProgramController programController, Session session) {
+        super(programController, session);
         this.usersManager = programController.getUsersManager();
         this.roomManager = programController.getRoomManager();
     }
@@ -103,10 +114,16 @@ public class OrganizerController extends AttendeeController {
      * old speakers' list. Return false if the time of the new speaker is not available
      */
     public boolean updateSpeaker(String event, String speaker) {
-
-        return eventController.removeSpeaker(event, eventController.getSingleEvent(event).getSpeakerID())
-                && eventController.addSpeaker(event, speaker);
-
+        String oldSpeaker = eventController.getSingleEvent(event).getSpeakerID();
+        if (!eventController.removeSpeaker(event, oldSpeaker)) {
+            return false;
+        }
+        if (eventController.addSpeaker(event, speaker)) {
+            return true;
+        }
+        // the new speaker is busy at that time, so keep the old one
+        eventController.addSpeaker(event, oldSpeaker);
+        return false;
     }
 
     /**
@@ -136,20 +153,28 @@ public class OrganizerController extends AttendeeController {
 
 
     public List<String> getAllSpeakers() {
-        List<String> speakers = new ArrayList<>();
-        for (String user : usersManager.getAllUsers()) {
-            // check if he is a speaker
-            if (this.usersManager.fetchRole(user).equals("Speaker")) {
-                speakers.add(user);
-            }
-        }
-        return speakers;
+        return usersManager.getUsersWithRole(Role.SPEAKER);
+    }
+
+    /**
+     * Find speakers whose username starts with a prefix, in username order.
+     *
+     * @param prefix of the usernames
+     * @param limit  the most speakers to find
+     * @return the ids of the speakers
+     */
+    public List<String> findSpeakers(String prefix, int limit) {
+        return usersManager.findUsersByPrefix(prefix, Role.SPEAKER, limit);
     }
 
     public String speakerToString() {
+        return this.speakersToString(this.getAllSpeakers());
+    }
+
+    public String speakersToString(List<String> speakers) {
         String ret = "";
         int count = 1;
-        for (String speakerId : this.getAllSpeakers()) {
+        for (String speakerId : speakers) {
             User speaker = usersManager.fetchUser(speakerId);
             ret = ret + count + ". " + speaker.getUsername() + "\n";
             count++;
@@ -1,5 +1,6 @@
 package main.controllers;
 
+import main.entities.IdDictionary;
 import main.gateways.CSVGateway;
 import main.gateways.Gateway;
 import main.screencontrollers.AnonymousScreenController;
@@ -20,16 +21,21 @@ public class ProgramController {
     InboxController inboxController;
     InboxManager inboxManager;
     RoomManager roomManager;
+    WaitlistManager waitlistManager;
+    BroadcastPipeline broadcastPipeline;
     MessageController messageController;
     Gateway gateway = new CSVGateway();
 
     public ProgramController() {
-        this.usersManager = new UsersManager();
-        this.eventsManager = new EventsManager();
-        this.messageManager = new MessageManager();
-        this.inboxManager = new InboxManager();
+        IdDictionary userIds = new IdDictionary();
+        this.usersManager = new UsersManager(userIds);
+        this.eventsManager = new EventsManager(userIds);
+        this.messageManager = new MessageManager(new IdDictionary(), MessageManager.DEFAULT_HEAP_BUDGET);
+        this.inboxManager = new InboxManager(this.messageManager.getMessageIds());
+        this.broadcastPipeline = new BroadcastPipeline(inboxManager);
         this.inboxController = new InboxController(messageManager, inboxManager, usersManager);
         this.roomManager = new RoomManager();
+        this.waitlistManager = new WaitlistManager();
         this.authController = new AuthController(this, usersManager);
         this.currentScreenController = new AnonymousScreenController(this);
         this.eventController = new EventController(this);
@@ -39,12 +45,17 @@ public class ProgramController {
     public void start() {
         this.loadData();
         this.currentScreenController.start();
+        //deliver every queued broadcast before the program exits
+        this.broadcastPipeline.shutdown();
 
     }
 
     public void loadData() {
         this.usersManager.loadUsersFromGateway(this.gateway);
         this.roomManager.loadRoomsFromGateway(this.gateway);
+        this.messageManager.loadMessagesFromGateway(this.gateway);
+        //events are not loaded from the gateway, so a waitlist is only kept if its event is in the schedule
+        this.waitlistManager.loadWaitlistsFromGateway(this.gateway, this.eventsManager.getSchedule().keySet());
     }
 
     public void nextScreenController() {
@@ -82,6 +93,14 @@ public class ProgramController {
         return this.roomManager;
     }
 
+    public WaitlistManager getWaitlistManager() {
+        return this.waitlistManager;
+    }
+
+    public BroadcastPipeline getBroadcastPipeline() {
+        return this.broadcastPipeline;
+    }
+
     public Gateway getGateway() {
         return this.gateway;
     }
@@ -1,6 +1,7 @@
 package main.controllers;
 
 import main.entities.Event;
+import main.entities.Session;
 import main.usecases.MessageManager;
 
 import java.util.ArrayList;
@@ -15,17 +16,29 @@ import java.util.ArrayList;
 public abstract class UserController {
 
 
+    protected Session session;
     protected String loggedInUser;
     protected MessageManager messageManager;
     protected EventController eventController;
 
     /**
-     * Constructor of UserController for a logged in user.
+     * Constructor of UserController for the user logged in at the console.
      *
      * @param programController pre-defined programController
      */
     public UserController(ProgramController programController) {
-        this.loggedInUser = programController.getAuthController().fetchLoggedInUser();
+        this(programController, programController.getAuthController().fetchCurrentSession());
+    }
+
+    /**
+     * Constructor of UserController for the user of a session.
+     *
+     * @param programController pre-defined programController
+     * @param session           of the logged in user
+     */
+    public UserController(ProgramController programController, Session session) {
+        this.session = session;
+        this.loggedInUser = session == null ? null : session.getUserId();
 
         this.messageManager = programController.getMessageManager();
         this.eventController = programController.getEventController();
@@ -1,9 +1,10 @@
 package main.entities;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A class that represents an event at the conference.
@@ -18,13 +19,15 @@ public class Event {
     private LocalDateTime time;
     private String roomID;
     private String speakerID;
-    private final List<String> attendeesID;
+    private volatile IdSet attendeesID;
+    private final AtomicInteger seatsTaken;
 
     /**
      * No-arg constructor for deserialization
      */
     public Event() {
-        this.attendeesID = new ArrayList<>();
+        this.attendeesID = new IdSet(new IdDictionary());
+        this.seatsTaken = new AtomicInteger();
     }
 
     /**
@@ -42,7 +45,8 @@ public class Event {
         this.time = time;
         this.roomID = roomID;
         this.speakerID = speakerID;
-        this.attendeesID = new ArrayList<>();
+        this.attendeesID = new IdSet(new IdDictionary());
+        this.seatsTaken = new AtomicInteger();
     }
 
     /**
@@ -65,30 +69,100 @@ public class Event {
 
 
     /**
-     * Returns a list of IDs of attendees who signed up for this event.
+     * Returns the IDs of attendees who signed up for this event.
      *
-     * @return attendeesID
+     * @return a read-only view of attendeesID
      */
-    public List<String> getAttendeesID() {
-        return attendeesID;
+    public Collection<String> getAttendeesID() {
+        return Collections.unmodifiableSet(attendeesID);
+    }
+
+    /**
+     * Move the attendees onto a dictionary of user ids shared with other events, so that an
+     * attendee of many events gets an int once rather than once per event. Only call this before
+     * the event is shared with other threads.
+     *
+     * @param userIds the shared dictionary of user ids
+     */
+    public void shareAttendeeIds(IdDictionary userIds) {
+        IdSet shared = new IdSet(userIds);
+        shared.addAll(this.attendeesID);
+        this.attendeesID = shared;
+    }
+
+    /**
+     * Checks if an attendee signed up for this event.
+     *
+     * @param id of the attendee
+     * @return true iff the attendee is signed up
+     */
+    public boolean hasAttendee(String id) {
+        return attendeesID.contains(id);
+    }
+
+    /**
+     * Returns the number of seats taken at this event.
+     *
+     * @return number of attendees
+     */
+    public int getAttendeeCount() {
+        return seatsTaken.get();
     }
 
     /**
      * A given id of an attendee is added to the list of id
      *
      * @param id to be added
+     * @return true iff the attendee was not signed up already
+     */
+    public boolean addAttendees(String id) {
+        if (attendeesID.add(id)) {
+            seatsTaken.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A given id of an attendee is added to the list of id if a seat is left. The seat is reserved
+     * before the attendee is added, so concurrent sign-ups never take more seats than the capacity.
+     * Calls for the same attendee should not run at once (EventsManager runs them one at a time),
+     * or a duplicate sign-up could hold a seat for a moment and turn someone else away.
+     *
+     * @param id       to be added
+     * @param capacity number of seats at this event
+     * @return true iff the attendee got a seat and was not signed up already
      */
-    public void addAttendees(String id) {
-        attendeesID.add(id);
+    public boolean addAttendees(String id, int capacity) {
+        if (attendeesID.contains(id)) {
+            return false;
+        }
+        int taken;
+        do {
+            taken = seatsTaken.get();
+            if (taken >= capacity) {
+                return false;
+            }
+        } while (!seatsTaken.compareAndSet(taken, taken + 1));
+        if (attendeesID.add(id)) {
+            return true;
+        }
+        seatsTaken.decrementAndGet();
+        return false;
     }
 
     /**
      * A given id of an attendee is removed from the list of id
      *
      * @param id to be removed
+     * @return true iff the attendee was signed up
      */
-    public void removeAttendees(String id) {
-        attendeesID.remove(id);
+    public boolean removeAttendees(String id) {
+        if (attendeesID.remove(id)) {
+            seatsTaken.decrementAndGet();
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,75 @@
+package main.entities;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The IdDictionary gives every String id a small, dense int, so that sets and maps of ids can be
+ * stored as arrays and bitmaps. An int is never reused or reassigned once given out, so a
+ * dictionary belongs to whatever holds the arrays and bitmaps that use its ints, and goes away
+ * with it.
+ */
+public class IdDictionary {
+
+    private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+    private volatile String[] ids = new String[16];
+    private int size = 0;
+
+    /**
+     * Get the int of an id, giving it the next free int if it has none yet.
+     *
+     * @param id to look up
+     * @return the int of the id
+     */
+    public int indexOf(String id) {
+        Integer index = indexes.get(id);
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            index = indexes.get(id);
+            if (index != null) {
+                return index;
+            }
+            String[] current = ids;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = id;
+            ids = current;
+            indexes.put(id, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Get the int of an id without giving it one.
+     *
+     * @param id to look up
+     * @return the int of the id, or -1 if it has none
+     */
+    public int lookup(String id) {
+        Integer index = indexes.get(id);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get the id that was given an int.
+     *
+     * @param index given out by indexOf
+     * @return the id
+     */
+    public String idOf(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Get the number of ids in the dictionary.
+     *
+     * @return size
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
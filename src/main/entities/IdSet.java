@@ -0,0 +1,157 @@
+package main.entities;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe set of String ids stored as a bitmap over their ints in the IdDictionary, which
+ * takes one bit per id in the dictionary instead of a hash table entry per member. The bitmap is
+ * split into pages that are only allocated once a member falls into them. Adding, removing and
+ * checking members never lock; iteration goes through the members in dictionary order and sees
+ * concurrent changes or not, but never fails.
+ */
+public class IdSet extends AbstractSet<String> {
+
+    private static final int WORDS_PER_PAGE = 64;
+    private static final int BITS_PER_PAGE = WORDS_PER_PAGE * 64;
+
+    private final IdDictionary dictionary;
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates an empty set over the given dictionary
+     *
+     * @param dictionary that gives ids their ints
+     */
+    public IdSet(IdDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public boolean add(String id) {
+        int index = dictionary.indexOf(id);
+        AtomicLongArray page = page(index, true);
+        int word = (index % BITS_PER_PAGE) >>> 6;
+        long bit = 1L << index;
+        while (true) {
+            long bits = page.get(word);
+            if ((bits & bit) != 0) {
+                return false;
+            }
+            if (page.compareAndSet(word, bits, bits | bit)) {
+                size.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        int index = dictionary.lookup((String) o);
+        AtomicLongArray page = index < 0 ? null : page(index, false);
+        if (page == null) {
+            return false;
+        }
+        int word = (index % BITS_PER_PAGE) >>> 6;
+        long bit = 1L << index;
+        while (true) {
+            long bits = page.get(word);
+            if ((bits & bit) == 0) {
+                return false;
+            }
+            if (page.compareAndSet(word, bits, bits & ~bit)) {
+                size.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        int index = dictionary.lookup((String) o);
+        AtomicLongArray page = index < 0 ? null : page(index, false);
+        return page != null && (page.get((index % BITS_PER_PAGE) >>> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private final AtomicLongArray[] snapshot = pages;
+            private int nextWord = 0;
+            private int currentWord = 0;
+            private long bits = 0;
+            private String next = advance();
+
+            private String advance() {
+                while (bits == 0) {
+                    if (nextWord >= snapshot.length * WORDS_PER_PAGE) {
+                        return null;
+                    }
+                    AtomicLongArray page = snapshot[nextWord / WORDS_PER_PAGE];
+                    if (page == null) {
+                        nextWord = (nextWord / WORDS_PER_PAGE + 1) * WORDS_PER_PAGE;
+                        continue;
+                    }
+                    bits = page.get(nextWord % WORDS_PER_PAGE);
+                    currentWord = nextWord++;
+                }
+                int index = currentWord * 64 + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                return dictionary.idOf(index);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    private AtomicLongArray page(int index, boolean create) {
+        int pageIndex = index / BITS_PER_PAGE;
+        AtomicLongArray[] current = pages;
+        if (pageIndex < current.length && current[pageIndex] != null) {
+            return current[pageIndex];
+        }
+        if (!create) {
+            return null;
+        }
+        synchronized (this) {
+            current = pages;
+            if (pageIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(pageIndex + 1, current.length * 2));
+            }
+            if (current[pageIndex] == null) {
+                current[pageIndex] = new AtomicLongArray(WORDS_PER_PAGE);
+            }
+            pages = current;
+            return current[pageIndex];
+        }
+    }
+}
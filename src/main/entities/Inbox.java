@@ -1,36 +1,64 @@
 package main.entities;
 
-import java.util.LinkedList;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
- * The Inbox holds the messages of a user;
+ * The Inbox holds the messages of a user; messages can be added to it from several threads.
+ * Messages are only ever appended, and are kept as their ints in a message IdDictionary in
+ * chunks that double in size, so that appending never copies earlier messages and reading never
+ * locks. A read watermark marks every message before it as read, so the number of unread messages
+ * is the number of messages after it. The distinct senders of the messages are kept in the order
+ * they last wrote, with the time their last message arrived.
  *
  * @author David Zhao
- * @version 2.0
+ * @version 3.0
  * @since 2020-11-13
  */
 public class Inbox {
 
+    private static final int FIRST_CHUNK_SIZE = 16;
+
     private String id;
-    private final List<String> messages = new LinkedList<String>();
+    private volatile int[][] chunks = new int[1][];
+    private volatile int messageCount = 0;
+    private volatile int readWatermark = 0;
+    private final Map<String, LocalDateTime> senders = new LinkedHashMap<>();
     private String user;
+    private final IdDictionary messageIds;
 
     /**
      * Empty constructor for deserialization
      */
     public Inbox() {
-
+        this.messageIds = new IdDictionary();
     }
 
     /**
      * Class constructor that defaults to an empty chatroom.
      */
     public Inbox(String user) {
+        this(user, new IdDictionary());
+    }
+
+    /**
+     * Class constructor that defaults to an empty chatroom whose messages get their ints from the
+     * given dictionary, so that they can be matched against other sets of messages using it.
+     *
+     * @param user       the owner of the chatroom
+     * @param messageIds the dictionary of message ids
+     */
+    public Inbox(String user, IdDictionary messageIds) {
         this.id = UUID.randomUUID().toString();
         this.user = user;
-
+        this.messageIds = messageIds;
     }
 
 
@@ -53,17 +81,197 @@ public class Inbox {
      * @param message String of the message to add
      */
     public void addMessage(String message) {
-        this.messages.add(message);
+        this.addMessage(message, null, null);
+    }
+
+    /**
+     * Adds a message to the chatroom and records its sender as the most recent one, unless a
+     * newer message from the sender is already in the room
+     *
+     * @param message String of the message to add
+     * @param sender  String of the sender of the message, or null if not known
+     * @param sentAt  the time the message was sent, or null if not known
+     */
+    public synchronized void addMessage(String message, String sender, LocalDateTime sentAt) {
+        if (sender != null && sentAt != null) {
+            LocalDateTime last = this.senders.get(sender);
+            if (last == null || !sentAt.isBefore(last)) {
+                this.senders.remove(sender);
+                this.senders.put(sender, sentAt);
+            }
+        }
+        int position = this.messageCount;
+        int chunk = chunkOf(position);
+        int[][] current = this.chunks;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, chunk + 1);
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new int[FIRST_CHUNK_SIZE << chunk];
+        }
+        current[chunk][position - chunkStart(chunk)] = this.messageIds.indexOf(message);
+        this.chunks = current;
+        this.messageCount = position + 1;
+    }
+
+    /**
+     * Gets the number of messages in the room
+     *
+     * @return the number of messages
+     */
+    public int getMessageCount() {
+        return this.messageCount;
+    }
+
+    /**
+     * Gets the distinct senders of the messages in the room, most recent first
+     *
+     * @return list of the Strings of the senders
+     */
+    public synchronized List<String> getSenders() {
+        List<String> recent = new ArrayList<>(this.senders.keySet());
+        Collections.reverse(recent);
+        return recent;
+    }
+
+    /**
+     * Gets the time the newest message from a sender in the room was sent
+     *
+     * @param sender String of the sender
+     * @return the time of the last message, or null if the sender never wrote
+     */
+    public synchronized LocalDateTime getLastMessageTime(String sender) {
+        return this.senders.get(sender);
+    }
+
+    /**
+     * Gets the number of messages that have not been read
+     *
+     * @return the number of unread messages
+     */
+    public int getUnreadCount() {
+        //the watermark can pass a count read just before it, so never report fewer than none
+        return Math.max(0, this.messageCount - this.readWatermark);
+    }
+
+    /**
+     * Gets the position of the oldest message that has not been read
+     *
+     * @return the read watermark, which equals getMessageCount() when every message is read
+     */
+    public int getReadWatermark() {
+        return this.readWatermark;
+    }
+
+    /**
+     * Marks every message before a position as read. The watermark never moves back.
+     *
+     * @param position just after the newest message that was read
+     */
+    public synchronized void markReadUpTo(int position) {
+        int upTo = Math.min(position, this.messageCount);
+        if (upTo > this.readWatermark) {
+            this.readWatermark = upTo;
+        }
+    }
+
+    /**
+     * Marks a page of messages that was shown as read, but only if every message before the page
+     * was read already, so that messages that were never shown are not passed over.
+     *
+     * @param from position of the oldest message on the page
+     * @param to   position just after the newest message on the page
+     */
+    public synchronized void markPageRead(int from, int to) {
+        if (from <= this.readWatermark) {
+            this.markReadUpTo(to);
+        }
+    }
+
+    /**
+     * Gets the oldest messages that have not been read, oldest first
+     *
+     * @param limit the most messages to get
+     * @return list of UUIDs of the unread messages
+     */
+    public List<String> getUnreadMessages(int limit) {
+        int start = this.readWatermark;
+        int end = Math.min(this.messageCount, start + limit);
+        List<String> unread = new ArrayList<>(Math.max(0, end - start));
+        for (int position = start; position < end; position++) {
+            unread.add(getMessage(position));
+        }
+        return unread;
     }
 
     /**
-     * Gets the messages in the room
+     * Gets the message at a position in the room, where 0 is the oldest message
      *
-     * @return list of UUIDs of the messages in the room.
+     * @param position of the message
+     * @return UUID of the message
+     */
+    public String getMessage(int position) {
+        return this.messageIds.idOf(getMessageIndex(position));
+    }
+
+    /**
+     * Gets the int of the message at a position in the room, as given by the message IdDictionary of the room
+     *
+     * @param position of the message
+     * @return the int of the message
+     */
+    public int getMessageIndex(int position) {
+        if (position < 0 || position >= this.messageCount) {
+            throw new IndexOutOfBoundsException(String.valueOf(position));
+        }
+        int chunk = chunkOf(position);
+        return this.chunks[chunk][position - chunkStart(chunk)];
+    }
+
+    /**
+     * Gets a page of messages that came before a position, newest first. To page through the
+     * room, start from getMessageCount() and pass the position of the oldest message of a page
+     * to get the page before it.
+     *
+     * @param before position just after the newest message of the page
+     * @param limit  the most messages on the page
+     * @return list of UUIDs of the messages on the page, newest first
+     */
+    public List<String> getMessagesBefore(int before, int limit) {
+        int end = Math.min(before, this.messageCount);
+        int start = Math.max(0, end - limit);
+        List<String> page = new ArrayList<>(Math.max(0, end - start));
+        for (int position = end - 1; position >= start; position--) {
+            page.add(getMessage(position));
+        }
+        return page;
+    }
+
+    /**
+     * Gets the messages in the room, oldest first. The returned list reads the room as it
+     * changes, and cannot be changed itself.
+     *
+     * @return read-only list of UUIDs of the messages in the room.
      */
     public List<String> getMessages() {
-        return this.messages;
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return getMessage(index);
+            }
+
+            @Override
+            public int size() {
+                return messageCount;
+            }
+        };
     }
 
+    private static int chunkOf(int position) {
+        return 31 - Integer.numberOfLeadingZeros(position / FIRST_CHUNK_SIZE + 1);
+    }
 
+    private static int chunkStart(int chunk) {
+        return FIRST_CHUNK_SIZE * ((1 << chunk) - 1);
+    }
 }
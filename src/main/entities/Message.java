@@ -37,6 +37,21 @@ public class Message {
         this.time = LocalDateTime.now();
     }
 
+    /**
+     * Class constructor for a message that was stored before
+     *
+     * @param id     the unique identifier of the message
+     * @param text   the text of the message
+     * @param sender the String of the sender
+     * @param time   the date the message was created
+     */
+    public Message(String id, String text, String sender, LocalDateTime time) {
+        this.id = id;
+        this.text = text;
+        this.sender = sender;
+        this.time = time;
+    }
+
     /**
      * Gets the text stored in the message
      *
@@ -0,0 +1,40 @@
+package main.entities;
+
+/**
+ * Role is the kind of a user, named the same way as the role string every User carries.
+ */
+public enum Role {
+    ATTENDEE("Attendee"),
+    ORGANIZER("Organizer"),
+    SPEAKER("Speaker");
+
+    private final String name;
+
+    Role(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the role as stored on a User
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Find the role with the given name, ignoring case.
+     *
+     * @param name of the role
+     * @return the role, or null if there is no role with that name
+     */
+    public static Role fromName(String name) {
+        for (Role role : values()) {
+            if (role.name.equalsIgnoreCase(name)) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
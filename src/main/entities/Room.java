@@ -1,7 +1,7 @@
 package main.entities;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -15,14 +15,14 @@ public class Room {
     private String id; // for referencing purposes
     private int roomNum; // the organizer can enter a room with its room number, and the schedule will display
     // the room number instead of the String
-    private Map<LocalDateTime, String> schedule;
+    private final RoomCalendar schedule;
     private int capacity;
 
     /**
      * No-arg constructor for deserialization
      */
     public Room() {
-    this.schedule = new HashMap<>();
+        this.schedule = new RoomCalendar();
     }
 
 
@@ -32,7 +32,7 @@ public class Room {
     public Room(int roomNum) {
         this.id = UUID.randomUUID().toString();
         this.roomNum = roomNum;
-        this.schedule = new HashMap<>();
+        this.schedule = new RoomCalendar();
         this.capacity = 2;
     }
 
@@ -83,10 +83,10 @@ public class Room {
     /**
      * Get the booking schedule of this room.
      *
-     * @return schedule
+     * @return a copy of the schedule, ordered by time
      */
     public Map<LocalDateTime, String> getSchedule() {
-        return schedule;
+        return schedule.toMap();
     }
 
     /**
@@ -96,7 +96,7 @@ public class Room {
      * @param event corresponding to the time slot
      */
     public void addToSchedule(LocalDateTime time, String event) {
-        schedule.put(time, event);
+        schedule.book(time, event);
     }
 
     /**
@@ -106,6 +106,45 @@ public class Room {
      * @param event corresponding to the time slot
      */
     public void removeFromSchedule(LocalDateTime time, String event) {
-        schedule.remove(time);
+        schedule.release(time);
+    }
+
+    /**
+     * Check if this room is free at the given time.
+     *
+     * @param time to be checked
+     * @return true iff no event is booked at that time
+     */
+    public boolean isFree(LocalDateTime time) {
+        return schedule.isFree(time);
+    }
+
+    /**
+     * Find the first free slot of this room at or after the given time.
+     *
+     * @param from the earliest acceptable time
+     * @return the start of the first free slot
+     */
+    public LocalDateTime nextFreeSlot(LocalDateTime from) {
+        return schedule.nextFreeSlot(from);
+    }
+
+    /**
+     * Get the number of events booked in this room on a day.
+     *
+     * @param date of the day
+     * @return the number of bookings on the day
+     */
+    public int bookingsOn(LocalDate date) {
+        return schedule.bookingsOn(date);
+    }
+
+    /**
+     * Get the number of bookings of this room.
+     *
+     * @return number of booked times
+     */
+    public int getScheduleSize() {
+        return schedule.size();
     }
 }
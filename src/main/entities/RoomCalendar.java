@@ -0,0 +1,277 @@
+package main.entities;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A compact booking calendar for a room. Each day keeps a bitset with one bit per minute between
+ * 9:00 and 17:59, and the ints of the events booked that day (from the calendar's event table) in an
+ * array ordered by slot, so that a slot's event is found by counting the set bits before it. Bookings that do not fall on a slot (outside
+ * of the day or not on a whole minute) are kept in a plain map so that nothing is lost.
+ */
+public class RoomCalendar {
+
+    public static final int FIRST_HOUR = 9;
+    public static final int LAST_HOUR = 17;
+    public static final int SLOTS_PER_DAY = (LAST_HOUR - FIRST_HOUR + 1) * 60;
+    private static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) / 64;
+
+    private final Map<LocalDate, Day> days = new HashMap<>();
+    private final Map<LocalDateTime, String> offSlotBookings = new TreeMap<>();
+    // ints of released bookings go on the free list and are handed out again, so the table only
+    // grows with the number of bookings held at once
+    private final List<String> eventTable = new ArrayList<>();
+    private int[] freeEventIndexes = new int[4];
+    private int freeEventCount = 0;
+    private int size = 0;
+
+    /**
+     * The bookings of one day.
+     */
+    private static class Day {
+        private final long[] slots = new long[WORDS_PER_DAY];
+        private int[] eventIndexes = new int[4];
+        private int count = 0;
+
+        private boolean isBooked(int slot) {
+            return (slots[slot >>> 6] & (1L << slot)) != 0;
+        }
+
+        private int rank(int slot) {
+            int word = slot >>> 6;
+            int rank = 0;
+            for (int i = 0; i < word; i++) {
+                rank += Long.bitCount(slots[i]);
+            }
+            return rank + Long.bitCount(slots[word] & ((1L << slot) - 1));
+        }
+    }
+
+    /**
+     * Book the room at the given time for an event, replacing any event booked at that time.
+     *
+     * @param time  that this room will be booked
+     * @param event corresponding to the time slot
+     */
+    public void book(LocalDateTime time, String event) {
+        if (time == null) {
+            return;
+        }
+        int slot = slotOf(time);
+        if (slot < 0) {
+            if (offSlotBookings.put(time, event) == null) {
+                size++;
+            }
+            return;
+        }
+        Day day = days.computeIfAbsent(time.toLocalDate(), d -> new Day());
+        int rank = day.rank(slot);
+        if (day.isBooked(slot)) {
+            releaseEventIndex(day.eventIndexes[rank]);
+            day.eventIndexes[rank] = allocateEventIndex(event);
+            return;
+        }
+        if (day.count == day.eventIndexes.length) {
+            day.eventIndexes = Arrays.copyOf(day.eventIndexes, day.count * 2);
+        }
+        System.arraycopy(day.eventIndexes, rank, day.eventIndexes, rank + 1, day.count - rank);
+        day.eventIndexes[rank] = allocateEventIndex(event);
+        day.count++;
+        day.slots[slot >>> 6] |= 1L << slot;
+        size++;
+    }
+
+    /**
+     * Release the booking at the given time.
+     *
+     * @param time that this room was booked
+     */
+    public void release(LocalDateTime time) {
+        if (time == null) {
+            return;
+        }
+        int slot = slotOf(time);
+        if (slot < 0) {
+            if (offSlotBookings.remove(time) != null) {
+                size--;
+            }
+            return;
+        }
+        Day day = days.get(time.toLocalDate());
+        if (day == null || !day.isBooked(slot)) {
+            return;
+        }
+        int rank = day.rank(slot);
+        releaseEventIndex(day.eventIndexes[rank]);
+        System.arraycopy(day.eventIndexes, rank + 1, day.eventIndexes, rank, day.count - rank - 1);
+        day.count--;
+        day.slots[slot >>> 6] &= ~(1L << slot);
+        size--;
+        if (day.count == 0) {
+            days.remove(time.toLocalDate());
+        }
+    }
+
+    /**
+     * Get the event booked at the given time.
+     *
+     * @param time to look up
+     * @return the id of the event, or null if the room is free at that time
+     */
+    public String eventAt(LocalDateTime time) {
+        if (time == null) {
+            return null;
+        }
+        int slot = slotOf(time);
+        if (slot < 0) {
+            return offSlotBookings.get(time);
+        }
+        Day day = days.get(time.toLocalDate());
+        if (day == null || !day.isBooked(slot)) {
+            return null;
+        }
+        return eventTable.get(day.eventIndexes[day.rank(slot)]);
+    }
+
+    /**
+     * Check if the room is free at the given time.
+     *
+     * @param time to be checked
+     * @return true iff nothing is booked at that time
+     */
+    public boolean isFree(LocalDateTime time) {
+        int slot = slotOf(time);
+        if (slot < 0) {
+            return !offSlotBookings.containsKey(time);
+        }
+        Day day = days.get(time.toLocalDate());
+        return day == null || !day.isBooked(slot);
+    }
+
+    /**
+     * Find the first free slot at or after the given time.
+     *
+     * @param from the earliest acceptable time
+     * @return the start of the first free slot
+     */
+    public LocalDateTime nextFreeSlot(LocalDateTime from) {
+        LocalDate date = from.toLocalDate();
+        int slot = firstSlotAtOrAfter(from.toLocalTime());
+        while (true) {
+            if (slot < SLOTS_PER_DAY) {
+                Day day = days.get(date);
+                int free = day == null ? slot : nextClearBit(day.slots, slot);
+                if (free < SLOTS_PER_DAY) {
+                    return timeOf(date, free);
+                }
+            }
+            date = date.plusDays(1);
+            slot = 0;
+        }
+    }
+
+    /**
+     * Get the number of events booked on a day between 9:00 and 17:59. A booking only holds the
+     * minute its event starts at, as events have no length, so this counts events rather than
+     * the share of the day the room is in use.
+     *
+     * @param date of the day
+     * @return the number of bookings on the day
+     */
+    public int bookingsOn(LocalDate date) {
+        Day day = days.get(date);
+        return day == null ? 0 : day.count;
+    }
+
+    /**
+     * Get the number of bookings.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get all bookings ordered by time.
+     *
+     * @return a new map from booked time to event id
+     */
+    public Map<LocalDateTime, String> toMap() {
+        Map<LocalDateTime, String> bookings = new TreeMap<>(offSlotBookings);
+        for (Map.Entry<LocalDate, Day> entry : days.entrySet()) {
+            Day day = entry.getValue();
+            int rank = 0;
+            for (int word = 0; word < WORDS_PER_DAY; word++) {
+                long bits = day.slots[word];
+                while (bits != 0) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bookings.put(timeOf(entry.getKey(), slot), eventTable.get(day.eventIndexes[rank++]));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return bookings;
+    }
+
+    private static int slotOf(LocalDateTime time) {
+        if (time.getSecond() != 0 || time.getNano() != 0
+                || time.getHour() < FIRST_HOUR || time.getHour() > LAST_HOUR) {
+            return -1;
+        }
+        return (time.getHour() - FIRST_HOUR) * 60 + time.getMinute();
+    }
+
+    private static int firstSlotAtOrAfter(LocalTime time) {
+        if (time.getHour() < FIRST_HOUR) {
+            return 0;
+        }
+        int slot = (time.getHour() - FIRST_HOUR) * 60 + time.getMinute();
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            slot++;
+        }
+        return Math.min(slot, SLOTS_PER_DAY);
+    }
+
+    private static LocalDateTime timeOf(LocalDate date, int slot) {
+        return date.atTime(FIRST_HOUR + slot / 60, slot % 60);
+    }
+
+    private static int nextClearBit(long[] slots, int from) {
+        int word = from >>> 6;
+        long free = ~slots[word] & (-1L << from);
+        while (free == 0) {
+            word++;
+            if (word == WORDS_PER_DAY) {
+                return SLOTS_PER_DAY;
+            }
+            free = ~slots[word];
+        }
+        return Math.min((word << 6) + Long.numberOfTrailingZeros(free), SLOTS_PER_DAY);
+    }
+
+    private int allocateEventIndex(String event) {
+        if (freeEventCount > 0) {
+            int index = freeEventIndexes[--freeEventCount];
+            eventTable.set(index, event);
+            return index;
+        }
+        eventTable.add(event);
+        return eventTable.size() - 1;
+    }
+
+    private void releaseEventIndex(int index) {
+        eventTable.set(index, null);
+        if (freeEventCount == freeEventIndexes.length) {
+            freeEventIndexes = Arrays.copyOf(freeEventIndexes, freeEventCount * 2);
+        }
+        freeEventIndexes[freeEventCount++] = index;
+    }
+}
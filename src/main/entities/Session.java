@@ -0,0 +1,97 @@
+package main.entities;
+
+/**
+ * A Session is one login of a user, found again by an opaque token. It remembers when it was last
+ * used, so that it can expire after being idle.
+ */
+public class Session {
+
+    private final String token;
+    private final String userId;
+    private final long createdAt;
+    private final boolean expireIdle;
+    private volatile long lastAccess;
+
+    /**
+     * Class constructor
+     *
+     * @param token  that identifies the session
+     * @param userId of the logged in user
+     * @param now    the time the session is opened, in milliseconds
+     */
+    public Session(String token, String userId, long now) {
+        this(token, userId, now, true);
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param token      that identifies the session
+     * @param userId     of the logged in user
+     * @param now        the time the session is opened, in milliseconds
+     * @param expireIdle whether the session expires after being idle
+     */
+    public Session(String token, String userId, long now, boolean expireIdle) {
+        this.token = token;
+        this.userId = userId;
+        this.createdAt = now;
+        this.lastAccess = now;
+        this.expireIdle = expireIdle;
+    }
+
+    /**
+     * Check if the session expires after being idle
+     *
+     * @return expireIdle
+     */
+    public boolean expiresWhenIdle() {
+        return expireIdle;
+    }
+
+    /**
+     * Get the token of the session
+     *
+     * @return token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Get the id of the logged in user
+     *
+     * @return userId
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Get the time the session was opened, in milliseconds
+     *
+     * @return createdAt
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Get the time the session was last used, in milliseconds
+     *
+     * @return lastAccess
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Record that the session was used
+     *
+     * @param now the time, in milliseconds
+     */
+    public void touch(long now) {
+        if (now > lastAccess) {
+            lastAccess = now;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package main.entities;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A first-come, first-served waitlist of attendees for a full event.
+ */
+public class Waitlist {
+
+    private String eventId;
+    private final Set<String> attendeesID = new LinkedHashSet<>();
+
+    /**
+     * No-arg constructor for deserialization
+     */
+    public Waitlist() {
+    }
+
+    /**
+     * Creates an empty waitlist for an event.
+     *
+     * @param eventId of the event
+     */
+    public Waitlist(String eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * Get the id of the event this waitlist is for.
+     *
+     * @return eventId
+     */
+    public String getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Sets the id of the event this waitlist is for.
+     *
+     * @param eventId of the event
+     */
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * Add an attendee to the end of the waitlist.
+     *
+     * @param id of the attendee
+     * @return true iff the attendee was not on the waitlist already
+     */
+    public boolean add(String id) {
+        return attendeesID.add(id);
+    }
+
+    /**
+     * Remove an attendee from the waitlist.
+     *
+     * @param id of the attendee
+     * @return true iff the attendee was on the waitlist
+     */
+    public boolean remove(String id) {
+        return attendeesID.remove(id);
+    }
+
+    /**
+     * Return the attendee at the front of the waitlist without removing them.
+     *
+     * @return id of the attendee, or null if the waitlist is empty
+     */
+    public String peek() {
+        Iterator<String> iterator = attendeesID.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Checks if an attendee is on the waitlist.
+     *
+     * @param id of the attendee
+     * @return true iff the attendee is waiting
+     */
+    public boolean contains(String id) {
+        return attendeesID.contains(id);
+    }
+
+    /**
+     * Get the number of attendees waiting.
+     *
+     * @return size of the waitlist
+     */
+    public int size() {
+        return attendeesID.size();
+    }
+
+    /**
+     * Get the attendees waiting, front first.
+     *
+     * @return a copy of the waitlist in order
+     */
+    public List<String> getAttendeesID() {
+        return new ArrayList<>(attendeesID);
+    }
+}
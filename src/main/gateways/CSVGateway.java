@@ -9,12 +9,17 @@ import main.entities.Event;
 import main.entities.Message;
 import main.entities.Room;
 import main.entities.User;
+import main.entities.Waitlist;
 import main.gateways.beans.EventBean;
 import main.gateways.beans.RoomBean;
 import main.gateways.beans.UserBean;
+import main.gateways.beans.WaitlistBean;
 import main.gateways.converters.EventConverter;
 import main.gateways.converters.RoomConverter;
+import main.gateways.converters.WaitlistConverter;
+import main.usecases.ImportReport;
 import main.usecases.UserFactory;
+import main.usecases.UsersManager;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -27,6 +32,8 @@ public class CSVGateway implements Gateway {
     private final String roomCSVPath = "src/store/Rooms.csv";
     private final String messageCSVPath = "src/store/Messages.csv";
     private final String inboxCSVPath = "src/store/Inboxes.csv";
+    private final String waitlistCSVPath = "src/store/Waitlists.csv";
+    private final MessageLog messageLog = new MessageLog("src/store/messages", MessageLog.DEFAULT_SEGMENT_LIMIT);
 
     public CSVGateway() {
     }
@@ -53,6 +60,26 @@ public class CSVGateway implements Gateway {
 
     }
 
+    /**
+     * Import the users of a registration file into a UsersManager, reading and parsing the file in
+     * chunks.
+     *
+     * @param path         of the registration file
+     * @param usersManager to add the users to
+     * @return a report of what was imported and what was turned away, or null if the file cannot be read
+     */
+    public ImportReport importUsers(String path, UsersManager usersManager) {
+        try (Reader reader = new BufferedReader(new FileReader(path))) {
+            return new UserCSVImporter(usersManager).importUsers(reader);
+        } catch (FileNotFoundException e) {
+            System.out.println("File not found.");
+            return null;
+        } catch (IOException e) {
+            System.out.println("IOException. Error reading file.");
+            return null;
+        }
+    }
+
     public void saveUsers(List<User> users) {
         List<UserBean> userBeans = new ArrayList<>();
         for (User user : users) {
@@ -148,13 +175,39 @@ public class CSVGateway implements Gateway {
 
     public List<Message> loadMessages() {
         try {
+            if (this.messageLog.exists()) {
+                return this.messageLog.replay();
+            }
             List<Message> messages = new CsvToBeanBuilder(new BufferedReader(new FileReader(this.messageCSVPath))).withType(Message.class).build().parse();
-
+            // start the message log from the messages saved before it existed
+            for (Message message : messages) {
+                this.messageLog.append(message);
+            }
+            this.messageLog.flush();
             return messages;
 
         } catch (FileNotFoundException e) {
             System.out.println("File not found.");
             return new ArrayList<>();
+        } catch (IOException e) {
+            System.out.println("IOException. Error reading file.");
+            return new ArrayList<>();
+        }
+    }
+
+    public void appendMessage(Message message) {
+        try {
+            this.messageLog.append(message);
+        } catch (IOException e) {
+            System.out.println("IOException. Error writing file.");
+        }
+    }
+
+    public void flushMessages() {
+        try {
+            this.messageLog.flush();
+        } catch (IOException e) {
+            System.out.println("IOException. Error writing file.");
         }
     }
 
@@ -175,7 +228,35 @@ public class CSVGateway implements Gateway {
         }
     }
 
+    public List<Waitlist> loadWaitlists() {
+        try {
+            // From documentation available at http://opencsv.sourceforge.net/
+            WaitlistConverter converter = new WaitlistConverter();
+            List<WaitlistBean> waitlistBeans = new CsvToBeanBuilder<WaitlistBean>(new BufferedReader(new FileReader(this.waitlistCSVPath))).withType(WaitlistBean.class).build().parse();
+            return converter.convertFromBeans(waitlistBeans);
 
+        } catch (FileNotFoundException e) {
+            return new ArrayList<>();
+        }
+    }
 
+    public void saveWaitlists(List<Waitlist> waitlists) {
+        try {
+            WaitlistConverter converter = new WaitlistConverter();
+            List<WaitlistBean> waitlistBeans = converter.convertToBeans(waitlists);
+            // From documentation available at http://opencsv.sourceforge.net/
+            FileWriter csvFileWriter = new FileWriter(this.waitlistCSVPath);
 
+            StatefulBeanToCsv<WaitlistBean> beanToCsv = new StatefulBeanToCsvBuilder<WaitlistBean>(csvFileWriter).build();
+            beanToCsv.write(waitlistBeans);
+            csvFileWriter.close();
+
+        } catch (IOException e) {
+            System.out.println("IOException. Error writing file.");
+        } catch (CsvDataTypeMismatchException e) {
+            System.out.println("Error writing file. Check your data format.");
+        } catch (CsvRequiredFieldEmptyException e) {
+            System.out.println("Error writing file. Missing required field.");
+        }
+    }
 }
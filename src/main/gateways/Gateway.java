@@ -4,6 +4,7 @@ import main.entities.Event;
 import main.entities.Message;
 import main.entities.Room;
 import main.entities.User;
+import main.entities.Waitlist;
 
 import java.util.List;
 
@@ -68,4 +69,31 @@ public interface Gateway {
      * @return List of Message
      */
     List<Message> loadMessages();
+
+    /**
+     * Append a newly created Message to the message log, so that saving messages only has to
+     * write the messages created since the last save
+     *
+     * @param message Message to append
+     */
+    void appendMessage(Message message);
+
+    /**
+     * Write every appended Message to the message log
+     */
+    void flushMessages();
+
+    /**
+     * Save Waitlist objects
+     *
+     * @param waitlists List of Waitlist to save
+     */
+    void saveWaitlists(List<Waitlist> waitlists);
+
+    /**
+     * Load Waitlist objects
+     *
+     * @return List of Waitlist
+     */
+    List<Waitlist> loadWaitlists();
 }
@@ -0,0 +1,152 @@
+package main.gateways;
+
+import main.entities.Message;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The MappedMessageFile holds messages that were moved out of memory, in a file that is mapped
+ * into memory in regions, so that reading a message back is a plain memory read that the
+ * operating system pages in when needed. Messages are only ever appended, and each one is found
+ * again by the locator returned when it was written.
+ */
+public class MappedMessageFile implements Closeable {
+
+    public static final int REGION_SIZE = 16 * 1024 * 1024;
+
+    private final File file;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private long mappedSize = 0;
+
+    /**
+     * Class constructor. Anything already in the file is discarded.
+     *
+     * @param file to hold the messages
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedMessageFile(File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Creates a file in the temporary directory that is deleted when the program exits.
+     *
+     * @return a new MappedMessageFile
+     * @throws IOException if the file cannot be created
+     */
+    public static MappedMessageFile createTemp() throws IOException {
+        File file = File.createTempFile("messages", ".cold");
+        file.deleteOnExit();
+        return new MappedMessageFile(file);
+    }
+
+    /**
+     * Append a message to the file.
+     *
+     * @param message to be written
+     * @return the locator to read the message back with
+     * @throws IOException if the file cannot grow
+     */
+    public synchronized long write(Message message) throws IOException {
+        byte[] id = bytes(message.getId());
+        byte[] sender = bytes(message.getSender());
+        byte[] text = bytes(message.getText());
+        int size = 3 * Integer.BYTES + Long.BYTES + Integer.BYTES + length(id) + length(sender) + length(text);
+        MappedByteBuffer region = regions.isEmpty() ? null : regions.get(regions.size() - 1);
+        if (region == null || region.remaining() < size) {
+            region = channel.map(FileChannel.MapMode.READ_WRITE, mappedSize, Math.max(REGION_SIZE, size));
+            mappedSize += region.capacity();
+            regions.add(region);
+        }
+        long locator = ((long) (regions.size() - 1) << 32) | region.position();
+        putBytes(region, id);
+        putBytes(region, sender);
+        LocalDateTime date = message.getDate();
+        region.putLong(date.toEpochSecond(ZoneOffset.UTC));
+        region.putInt(date.getNano());
+        putBytes(region, text);
+        return locator;
+    }
+
+    /**
+     * Read back a message.
+     *
+     * @param locator returned when the message was written
+     * @return the message
+     */
+    public Message read(long locator) {
+        ByteBuffer region;
+        synchronized (this) {
+            region = regions.get((int) (locator >>> 32)).duplicate();
+        }
+        region.position((int) locator);
+        String id = getString(region);
+        String sender = getString(region);
+        long seconds = region.getLong();
+        int nanos = region.getInt();
+        String text = getString(region);
+        return new Message(id, text, sender, LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+    }
+
+    /**
+     * Get the number of bytes of the file that are mapped.
+     *
+     * @return the mapped size
+     */
+    public synchronized long getMappedSize() {
+        return mappedSize;
+    }
+
+    /**
+     * Close the file. Messages can no longer be read or written afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        regions.clear();
+        channel.close();
+        file.delete();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,299 @@
+package main.gateways;
+
+import main.entities.Message;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The MessageLog stores messages by appending each one to the end of a segment file, so that
+ * saving costs only the messages created since the last save. A new segment is started once the
+ * current one reaches the size limit. Every record carries a checksum, so that a record cut off by
+ * a crash is dropped on replay instead of being read back wrong.
+ *
+ * Each record is one line of tab separated fields: checksum, id, sender, time and text, with tabs,
+ * line breaks and backslashes in the text escaped.
+ */
+public class MessageLog {
+
+    public static final long DEFAULT_SEGMENT_LIMIT = 4L * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final File directory;
+    private final long segmentLimit;
+    private Writer writer;
+    private int segmentNumber;
+    private long segmentSize;
+
+    /**
+     * Class constructor
+     *
+     * @param directory    that holds the segment files
+     * @param segmentLimit the size in bytes after which a new segment is started
+     */
+    public MessageLog(String directory, long segmentLimit) {
+        this.directory = new File(directory);
+        this.segmentLimit = segmentLimit;
+    }
+
+    /**
+     * Append a message to the current segment. The message is buffered until the next flush.
+     *
+     * @param message to be appended
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized void append(Message message) throws IOException {
+        String record = encode(message);
+        int recordSize = record.getBytes(StandardCharsets.UTF_8).length;
+        if (writer == null) {
+            open(lastSegmentNumber());
+        }
+        if (segmentSize > 0 && segmentSize + recordSize > segmentLimit) {
+            writer.close();
+            open(segmentNumber + 1);
+        }
+        writer.write(record);
+        segmentSize += recordSize;
+    }
+
+    /**
+     * Write every buffered message to disk.
+     *
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Flush and close the current segment.
+     *
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Check if the log has any segment.
+     *
+     * @return true iff there is at least one segment
+     */
+    public boolean exists() {
+        return segmentNumbers().length > 0;
+    }
+
+    /**
+     * Read back every message in the log, oldest first. Records that fail their checksum are
+     * skipped.
+     *
+     * @return the messages in the log
+     * @throws IOException if a segment cannot be read
+     */
+    public synchronized List<Message> replay() throws IOException {
+        flush();
+        List<Message> messages = new ArrayList<>();
+        for (int number : segmentNumbers()) {
+            //a record torn in the middle of a character decodes to replacement characters and then
+            //fails its checksum, instead of failing the whole replay
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(segmentFile(number)), decoder))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Message message = decode(line);
+                    if (message != null) {
+                        messages.add(message);
+                    }
+                }
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Get the number of segments in the log.
+     *
+     * @return the number of segments
+     */
+    public int getSegmentCount() {
+        return segmentNumbers().length;
+    }
+
+    private void open(int number) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        File file = segmentFile(number);
+        dropTornTail(file);
+        segmentNumber = number;
+        segmentSize = file.length();
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cut a record left unfinished by a crash off the end of a segment, so that the next record
+     * starts on a line of its own instead of being joined to the torn one and dropped with it.
+     */
+    private static void dropTornTail(File file) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(file, "rw")) {
+            long end = segment.length();
+            while (end > 0) {
+                segment.seek(end - 1);
+                if (segment.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < segment.length()) {
+                segment.setLength(end);
+            }
+        }
+    }
+
+    private File segmentFile(int number) {
+        return new File(directory, String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private int lastSegmentNumber() {
+        int[] numbers = segmentNumbers();
+        return numbers.length == 0 ? 1 : numbers[numbers.length - 1];
+    }
+
+    private int[] segmentNumbers() {
+        String[] names = directory.list();
+        if (names == null) {
+            return new int[0];
+        }
+        int[] numbers = new int[names.length];
+        int count = 0;
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    numbers[count++] = Integer.parseInt(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    count--;
+                }
+            }
+        }
+        numbers = Arrays.copyOf(numbers, count);
+        Arrays.sort(numbers);
+        return numbers;
+    }
+
+    private static String encode(Message message) {
+        String body = message.getId() + "\t" + (message.getSender() == null ? "" : message.getSender()) + "\t"
+                + message.getDate() + "\t" + escape(message.getText());
+        return checksum(body) + "\t" + body + "\n";
+    }
+
+    private static Message decode(String line) {
+        int tab = line.indexOf('\t');
+        if (tab < 0) {
+            return null;
+        }
+        String body = line.substring(tab + 1);
+        if (!line.substring(0, tab).equals(checksum(body))) {
+            return null;
+        }
+        String[] fields = body.split("\t", 4);
+        if (fields.length != 4) {
+            return null;
+        }
+        try {
+            return new Message(fields[0], unescape(fields[3]), fields[1].isEmpty() ? null : fields[1],
+                    LocalDateTime.parse(fields[2]));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String unescape(String text) {
+        StringBuilder unescaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                switch (next) {
+                    case 't':
+                        unescaped.append('\t');
+                        break;
+                    case 'n':
+                        unescaped.append('\n');
+                        break;
+                    case 'r':
+                        unescaped.append('\r');
+                        break;
+                    default:
+                        unescaped.append(next);
+                }
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+}
@@ -0,0 +1,188 @@
+package main.gateways;
+
+import com.opencsv.CSVParser;
+import main.entities.Role;
+import main.entities.User;
+import main.usecases.ImportReport;
+import main.usecases.UserFactory;
+import main.usecases.UsersManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The UserCSVImporter adds the users of a registration file, in the same username, password, role
+ * layout as the users file, to a UsersManager. The file is read a chunk of lines at a time, and
+ * each chunk is parsed and checked on another thread while the next ones are read. Only a fixed
+ * number of chunks are in flight at once, so memory does not grow with the size of the file.
+ * Chunks are then added in file order in one batch each, so that when a username is taken more
+ * than once, the first row with it wins and every later one is reported.
+ *
+ * Each row has to fit on one line of the file.
+ */
+public class UserCSVImporter {
+
+    public static final int DEFAULT_CHUNK_LINES = 4096;
+
+    private final UsersManager usersManager;
+    private final Executor executor;
+    private final int chunkLines;
+    private final int maxChunksInFlight;
+
+    /**
+     * A parsed chunk: the users made from its good rows, with the line of each, and its bad rows.
+     */
+    private static class Chunk {
+        private final List<User> users = new ArrayList<>();
+        private final List<Long> userLines = new ArrayList<>();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+    }
+
+    /**
+     * Creates an importer that parses on the common pool
+     *
+     * @param usersManager to add the users to
+     */
+    public UserCSVImporter(UsersManager usersManager) {
+        this(usersManager, ForkJoinPool.commonPool(), DEFAULT_CHUNK_LINES,
+                2 * ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param usersManager      to add the users to
+     * @param executor          to parse chunks on
+     * @param chunkLines        number of lines in a chunk
+     * @param maxChunksInFlight most chunks read but not yet added at once
+     */
+    public UserCSVImporter(UsersManager usersManager, Executor executor, int chunkLines, int maxChunksInFlight) {
+        this.usersManager = usersManager;
+        this.executor = executor;
+        this.chunkLines = chunkLines;
+        this.maxChunksInFlight = Math.max(1, maxChunksInFlight);
+    }
+
+    /**
+     * Import every user in a registration file. The first line is taken to be the header.
+     *
+     * @param reader of the file
+     * @return a report of what was imported and what was turned away
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importUsers(Reader reader) throws IOException {
+        ImportReport report = new ImportReport();
+        Deque<CompletableFuture<Chunk>> inFlight = new ArrayDeque<>();
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        long lineNumber = 1;
+        if (lines.readLine() == null) {
+            return report;
+        }
+        List<String> chunk = new ArrayList<>(chunkLines);
+        long firstLine = lineNumber + 1;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            chunk.add(line);
+            if (chunk.size() == chunkLines) {
+                if (inFlight.size() == maxChunksInFlight) {
+                    add(inFlight.removeFirst().join(), report);
+                }
+                inFlight.addLast(parseLater(chunk, firstLine));
+                chunk = new ArrayList<>(chunkLines);
+                firstLine = lineNumber + 1;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inFlight.addLast(parseLater(chunk, firstLine));
+        }
+        while (!inFlight.isEmpty()) {
+            add(inFlight.removeFirst().join(), report);
+        }
+        return report;
+    }
+
+    private CompletableFuture<Chunk> parseLater(List<String> lines, long firstLine) {
+        return CompletableFuture.supplyAsync(() -> parse(lines, firstLine), executor);
+    }
+
+    private static Chunk parse(List<String> lines, long firstLine) {
+        CSVParser parser = new CSVParser();
+        UserFactory userFactory = new UserFactory();
+        Chunk chunk = new Chunk();
+        for (int i = 0; i < lines.size(); i++) {
+            long lineNumber = firstLine + i;
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields;
+            try {
+                fields = parser.parseLine(line);
+            } catch (IOException e) {
+                chunk.errors.add(new ImportReport.RowError(lineNumber, "malformed row"));
+                continue;
+            }
+            String error = validate(fields);
+            if (error != null) {
+                chunk.errors.add(new ImportReport.RowError(lineNumber, error));
+                continue;
+            }
+            chunk.users.add(userFactory.getUser(fields[0].trim(), fields[1], fields[2].trim()));
+            chunk.userLines.add(lineNumber);
+        }
+        return chunk;
+    }
+
+    private static String validate(String[] fields) {
+        if (fields.length != 3) {
+            return "expected 3 fields but found " + fields.length;
+        }
+        if (fields[0].trim().isEmpty()) {
+            return "missing username";
+        }
+        if (fields[1].isEmpty()) {
+            return "missing password";
+        }
+        if (Role.fromName(fields[2].trim()) == null) {
+            return "unknown role " + fields[2];
+        }
+        return null;
+    }
+
+    private void add(Chunk chunk, ImportReport report) {
+        List<User> batch = new ArrayList<>(chunk.users.size());
+        Set<String> usernames = new HashSet<>();
+        int error = 0;
+        for (int i = 0; i < chunk.users.size(); i++) {
+            User user = chunk.users.get(i);
+            long line = chunk.userLines.get(i);
+            //report the rows of the chunk in file order
+            while (error < chunk.errors.size() && chunk.errors.get(error).getLine() < line) {
+                ImportReport.RowError rowError = chunk.errors.get(error++);
+                report.addError(rowError.getLine(), rowError.getReason());
+            }
+            if (usersManager.checkConflicts(user.getUsername()) || !usernames.add(user.getUsername())) {
+                report.addError(line, "username " + user.getUsername() + " is taken");
+            } else {
+                batch.add(user);
+            }
+        }
+        while (error < chunk.errors.size()) {
+            ImportReport.RowError rowError = chunk.errors.get(error++);
+            report.addError(rowError.getLine(), rowError.getReason());
+        }
+        usersManager.addUsers(batch);
+        report.addImported(batch.size());
+    }
+}
@@ -0,0 +1,32 @@
+package main.gateways.beans;
+
+import java.io.Serializable;
+
+/**
+ * WaitlistBean is used to serialize and deserialize Waitlists
+ * Each Waitlist is represented by one WaitlistBean per waiting attendee, in waitlist order
+ */
+public class WaitlistBean implements Serializable {
+    private String eventId;
+    private String attendeeId;
+
+    public WaitlistBean() {
+
+    }
+
+    public String getEventId() {
+        return this.eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getAttendeeId() {
+        return this.attendeeId;
+    }
+
+    public void setAttendeeId(String attendeeId) {
+        this.attendeeId = attendeeId;
+    }
+}
@@ -28,7 +28,11 @@ public class EventConverter implements Converter<EventBean, Event>{
                 events.put(event.getId(), event);
             }
 
-            event.addAttendees(eventBean.getAttendeeId());
+            // an event without attendees is stored as a single row with no attendee
+            String attendeeId = eventBean.getAttendeeId();
+            if (attendeeId != null && !attendeeId.isEmpty()) {
+                event.addAttendees(attendeeId);
+            }
 
         }
 
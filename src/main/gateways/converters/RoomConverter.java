@@ -27,7 +27,10 @@ public class RoomConverter implements Converter<RoomBean, Room>{
                 rooms.put(currentRoom.getId(), currentRoom);
             }
 
-            currentRoom.addToSchedule(roomBean.getEventTime(), roomBean.getEventId());
+            // a room without bookings is stored as a single row with no event
+            if (roomBean.getEventTime() != null) {
+                currentRoom.addToSchedule(roomBean.getEventTime(), roomBean.getEventId());
+            }
 
         }
         List<Room> roomList = new ArrayList<>();
@@ -39,7 +42,7 @@ public class RoomConverter implements Converter<RoomBean, Room>{
         List<RoomBean> roomBeanList = new ArrayList<>();
 
         for (Room room:rooms) {
-            if (room.getSchedule().size()>0) {
+            if (room.getScheduleSize()>0) {
                 for (Map.Entry<LocalDateTime, String> entry : room.getSchedule().entrySet()) {
                     RoomBean roomBean = new RoomBean();
                     roomBean.setCapacity(room.getCapacity());
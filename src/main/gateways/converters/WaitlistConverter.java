@@ -0,0 +1,46 @@
+package main.gateways.converters;
+
+import main.entities.Waitlist;
+import main.gateways.beans.WaitlistBean;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of Converter that serializes and deserializes Waitlist
+ */
+public class WaitlistConverter implements Converter<WaitlistBean, Waitlist> {
+
+    public List<Waitlist> convertFromBeans(List<WaitlistBean> waitlistBeans) {
+        Map<String, Waitlist> waitlists = new LinkedHashMap<>();
+
+        for (WaitlistBean waitlistBean : waitlistBeans) {
+            Waitlist waitlist = waitlists.get(waitlistBean.getEventId());
+            if (waitlist == null) {
+                waitlist = new Waitlist(waitlistBean.getEventId());
+                waitlists.put(waitlist.getEventId(), waitlist);
+            }
+            waitlist.add(waitlistBean.getAttendeeId());
+        }
+
+        List<Waitlist> waitlistList = new ArrayList<>();
+        waitlistList.addAll(waitlists.values());
+        return waitlistList;
+    }
+
+    public List<WaitlistBean> convertToBeans(List<Waitlist> waitlists) {
+        List<WaitlistBean> waitlistBeanList = new ArrayList<>();
+
+        for (Waitlist waitlist : waitlists) {
+            for (String attendeeId : waitlist.getAttendeesID()) {
+                WaitlistBean waitlistBean = new WaitlistBean();
+                waitlistBean.setEventId(waitlist.getEventId());
+                waitlistBean.setAttendeeId(attendeeId);
+                waitlistBeanList.add(waitlistBean);
+            }
+        }
+        return waitlistBeanList;
+    }
+}
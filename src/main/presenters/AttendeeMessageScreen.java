@@ -13,29 +13,46 @@ import java.util.List;
  */
 public class AttendeeMessageScreen {
 
-    protected List<String> recipients;
     protected UsersManager usersManager;
 
     /**
      * Constructor of an AttendeeMessageScreen.
      */
-    public AttendeeMessageScreen(UsersManager usersManager, List<String> recipients) {
+    public AttendeeMessageScreen(UsersManager usersManager) {
         this.usersManager = usersManager;
-        this.recipients = recipients;
     }
 
     /**
-     * Displays all users that the attendee can message and prompts them to choose one.
+     * Prompts the attendee to search for who to message.
      */
-    public void prompt() {
+    public void searchPrompt() {
+        System.out.println("Please enter the start of the username of who you want to message.");
+        System.out.println("Enter 0 to return to the previous screen.");
+    }
+
+    /**
+     * Lets the attendee know that no username starts with what they entered.
+     *
+     * @param prefix entered by the attendee
+     */
+    public void noMatches(String prefix) {
+        System.out.println("No username starts with \"" + prefix + "\".");
+    }
+
+    /**
+     * Displays the users found by a search and prompts the attendee to choose one.
+     *
+     * @param recipients the ids of the users found
+     */
+    public void prompt(List<String> recipients) {
         int count = 1;
         System.out.println("Please select a user to message by entering a number. \n" +
-                "Here is a list of users you can message:");
+                "Here are the users you can message:");
         while (count <= recipients.size()) {
             System.out.println(count + ". " + usersManager.userToString(recipients.get(count - 1)));
             count++;
         }
-        System.out.println("Enter 0 to return to the previous screen.");
+        System.out.println("Enter 0 to search again.");
     }
 
     /**
@@ -20,9 +20,12 @@ public class EventSignUpScreen {
         System.out.println("2. Cancel an event");
     }
 
-    public void promptEvents(String events){
+    public void promptEvents(String events, boolean hasMore){
         System.out.println("You are signing up for an event, the following are the events that you can sign up for:");
         System.out.println(events);
+        if (hasMore) {
+            System.out.println("Enter n to see more events.");
+        }
         System.out.println("Enter event index from the above list(Please enter a number, i.e., 1): ");
     }
 
@@ -38,6 +41,15 @@ public class EventSignUpScreen {
         System.out.println("You already made this command.");
     }
 
+    public void promptWaitlist(int waiting){
+        System.out.println("Sorry, this event is full. " + waiting + " people are on the waitlist.");
+        System.out.println("Enter 1 to join the waitlist, or anything else to go back: ");
+    }
+
+    public void printWaitlistMessage(){
+        System.out.println("You are on the waitlist. We will message you when a seat opens up.");
+    }
+
     public void printNoEventMessage(){
         System.out.println("There's no events you can sign up.");
     }
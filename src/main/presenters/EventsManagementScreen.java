@@ -58,12 +58,27 @@ public class EventsManagementScreen {
         System.out.println("Enter room number from the above list (integer only):");
     }
 
+    /**
+     * Ask for the start of the username of a speaker
+     */
+    public void promptSpeakerSearch(){
+        System.out.println("Enter the start of the speaker's username (or nothing to see the first speakers):");
+    }
+
+    /**
+     * Print out that no speaker username starts with the given text
+     * @param prefix that was searched for
+     */
+    public void printNoSpeakerMatch(String prefix){
+        System.out.println("No speaker's username starts with \"" + prefix + "\".");
+    }
+
     /**
      * Print out list of speakers and ask user choose index
      * @param speakerList List of available speakers
      */
     public void promptSpeaker(String speakerList){
-        System.out.println("Here are the available speakers");
+        System.out.println("Here are the matching speakers");
         System.out.println(speakerList);
         System.out.println("Enter speaker index from the above list (Starting from 1):");
     }
@@ -91,6 +106,13 @@ public class EventsManagementScreen {
         System.out.println(info);
     }
 
+    /**
+     * Tell the organizer how to see the next page of events
+     */
+    public void promptMoreEvents(){
+        System.out.println("Enter n to see more events.");
+    }
+
     /**
      * Print verification showing one modification has been done successfully
      */
@@ -14,6 +14,7 @@ public class GatewayScreen {
         System.out.println("2. Save rooms");
         System.out.println("3. Save events");
         System.out.println("4. Save messages");
+        System.out.println("5. Save waitlists");
     }
 
     public void saveUsers() {
@@ -36,6 +37,11 @@ public class GatewayScreen {
         System.out.println();
     }
 
+    public void saveWaitlists() {
+        System.out.println("Saving waitlists...");
+        System.out.println();
+    }
+
     public void success() {
         System.out.println("Success!");
     }
@@ -9,17 +9,65 @@ public class InboxScreen {
         System.out.println();
     }
 
-    public void optionsPrompt() {
+    public void optionsPrompt(int unread) {
+        System.out.println("You have " + unread + " unread messages.");
         System.out.println("Please choose from one of the following options:");
         System.out.println("0. Go back");
         System.out.println("1. Open my inbox");
+        System.out.println("2. Read new messages");
+        System.out.println("3. Search messages");
     }
 
-    public void listMessages(List<String> messageStrings) {
-        System.out.println("You have " + messageStrings.size() + " messages:");
+    public void listMessages(List<String> messageStrings, int total, boolean hasOlder) {
+        System.out.println("You have " + total + " messages, newest first:");
         for (int i =1; i <= messageStrings.size(); i++){
             System.out.println(i +". " + messageStrings.get(i-1));
         }
+        if (hasOlder) {
+            System.out.println("Enter n to see older messages.");
+        }
+    }
+
+    public void listUnreadMessages(List<String> messageStrings, int stillUnread) {
+        System.out.println("New messages, oldest first:");
+        for (int i =1; i <= messageStrings.size(); i++){
+            System.out.println(i +". " + messageStrings.get(i-1));
+        }
+        if (stillUnread > 0) {
+            System.out.println(stillUnread + " more unread messages.");
+        }
+    }
+
+    public void newMessagesArrived(int count) {
+        System.out.println(count + " new messages arrived. Open your inbox to see them.");
+    }
+
+    public void noUnreadMessages() {
+        System.out.println("You have no new messages.");
+    }
+
+    public void searchKeywordsPrompt() {
+        System.out.println("Enter the words to search for, or leave it blank to match any message:");
+    }
+
+    public void searchSenderPrompt() {
+        System.out.println("Enter the username of the sender, or leave it blank to match any sender:");
+    }
+
+    public void searchDatePrompt(boolean start) {
+        System.out.println("Enter the " + (start ? "earliest" : "latest")
+                + " date to search (yyyy-mm-dd), or leave it blank for no limit:");
+    }
+
+    public void listSearchResults(List<String> messageStrings) {
+        System.out.println("Found these messages, newest first:");
+        for (int i =1; i <= messageStrings.size(); i++){
+            System.out.println(i +". " + messageStrings.get(i-1));
+        }
+    }
+
+    public void noSearchResults() {
+        System.out.println("No messages match your search.");
     }
 
     public void invalidOption() {
@@ -6,21 +6,30 @@ import java.util.List;
 
 public class OrganizerMessageScreen extends AttendeeMessageScreen {
 
-    public OrganizerMessageScreen(UsersManager usersManager, List<String> recipients) {
-        super(usersManager, recipients);
+    public OrganizerMessageScreen(UsersManager usersManager) {
+        super(usersManager);
     }
 
     public void prompt() {
-        int count = 1;
-        System.out.println("Please select a users to message by entering numbers separated by comma. (e.g. 1,3,4,5)");
         System.out.println("Enter \"all\" to message all users.");
         System.out.println("Enter \"attendees\" to message all attendees.");
         System.out.println("Enter \"speakers\" to message all speakers.");
-        System.out.println("Here is a list of users you can message:");
-        while (count <= this.recipients.size()) {
+        System.out.println("Or enter the start of a username to search for users to message.");
+        System.out.println("Enter 0 to return to the previous screen.");
+    }
+
+    public void prompt(List<String> recipients) {
+        int count = 1;
+        System.out.println("Please select users to message by entering numbers separated by comma. (e.g. 1,3,4,5)");
+        System.out.println("Here are the users you can message:");
+        while (count <= recipients.size()) {
             System.out.println(count + ". " + this.usersManager.userToString(recipients.get(count - 1)));
             count++;
         }
-        System.out.println("Enter 0 to return to the previous screen.");
+        System.out.println("Enter 0 to search again.");
+    }
+
+    public void deliveryMessage(int receivers) {
+        System.out.println("Success! Your message is being delivered to " + receivers + " users.");
     }
 }
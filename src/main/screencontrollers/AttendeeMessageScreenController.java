@@ -5,7 +5,6 @@ import main.controllers.ProgramController;
 import main.presenters.AttendeeMessageScreen;
 import main.usecases.UsersManager;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -17,8 +16,9 @@ import java.util.List;
  */
 public class AttendeeMessageScreenController extends ScreenController {
 
+    protected static final int MATCHES = 10;
+
     protected AttendeeMessageScreen attendeeMessageScreen;
-    protected List<String> prompts;
     protected List<String> recipients;
     protected UsersManager usersManager;
     protected MessageController messageController;
@@ -34,38 +34,54 @@ public class AttendeeMessageScreenController extends ScreenController {
         this.loggedInUser = this.programController.getAuthController().fetchLoggedInUser();
         this.usersManager = programController.getUsersManager();
         this.messageController = programController.getMessageController();
-        this.recipients = this.messageController.receiversForAttendeeAndOrganizer(loggedInUser);
-        this.prompts = new ArrayList<>();
-        for (int i = 0; i <= recipients.size(); i++) {
-            this.prompts.add("" + i);
-        }
-        this.attendeeMessageScreen = new AttendeeMessageScreen(usersManager,
-                this.messageController.receiversForAttendeeAndOrganizer(loggedInUser));
+        this.attendeeMessageScreen = new AttendeeMessageScreen(usersManager);
     }
 
     /**
      * Asks attendeeMessageScreen to display the appropriate prompts, receives input from the attendee, and processes
-     * them accordingly to create and send messages.
+     * them accordingly to create and send messages. The attendee searches for who to message by the start of
+     * their username, and picks one of the first matches.
      */
     public void start() {
-        this.attendeeMessageScreen.prompt();
+        this.attendeeMessageScreen.searchPrompt();
         String next = scanner.nextLine();
         while (!next.equals("0")) {
-            while (!this.prompts.contains(next)) {
-                this.attendeeMessageScreen.prompt2(next);
+            this.recipients = this.messageController.findReceivers(loggedInUser, next.trim(), MATCHES);
+            if (this.recipients.isEmpty()) {
+                this.attendeeMessageScreen.noMatches(next);
+            } else {
+                this.attendeeMessageScreen.prompt(this.recipients);
                 next = this.scanner.nextLine();
+                while (!next.equals("0") && !isRecipientIndex(next)) {
+                    this.attendeeMessageScreen.prompt2(next);
+                    next = this.scanner.nextLine();
+                }
+                if (!next.equals("0")) {
+                    sendMessage(Integer.parseInt(next.trim()) - 1);
+                }
             }
-            if (next.equals("0")) {
-                break;
-            }
-            sendMessage(Integer.parseInt(next) - 1);
-            this.attendeeMessageScreen.prompt();
+            this.attendeeMessageScreen.searchPrompt();
             next = this.scanner.nextLine();
         }
         this.goToPreviousScreenController();
         this.end();
     }
 
+    /**
+     * Check if the input is the number of one of the listed recipients.
+     *
+     * @param input entered by the user
+     * @return true iff the input is between 1 and the number of recipients
+     */
+    protected boolean isRecipientIndex(String input) {
+        try {
+            int index = Integer.parseInt(input.trim());
+            return 0 < index && index <= this.recipients.size();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     private void sendMessage(Integer usersIndex) {
         this.attendeeMessageScreen.messagePrompt();
         String next = scanner.nextLine();
@@ -18,6 +18,7 @@ import java.util.ArrayList;
  * @since 2020-11-11
  */
 public class EventSignUpScreenController extends ScreenController {
+    private static final int PAGE_SIZE = 20;
     EventSignUpScreen presenter = new EventSignUpScreen();
     UsersManager usersManager = new UsersManager();
     OrganizerController organizerController;
@@ -68,13 +69,11 @@ public class EventSignUpScreenController extends ScreenController {
         String userEmail = authController.fetchLoggedInUser();
         String userId = usersManager.getIDFromUsername(userEmail);
         if (this.haveEvent()) {
-            String info = eventController.getEventsInfo();
-            this.presenter.promptEvents(info);
-            String eventIndex = this.scanner.nextLine();
-            int index = Integer.parseInt(eventIndex);
-            String eventId = eventController.getEventId(index-1);
+            String eventId = this.chooseEvent();
             if (eventController.signupEvent(eventId, userId)) {
                 this.presenter.printSuccessMessage();
+            } else if (eventController.isEventFull(eventId) || eventController.getWaitlistSize(eventId) > 0) {
+                this.waitlistOption(eventId, userId);
             } else {
                 this.presenter.printFailMessage();
             }
@@ -83,15 +82,45 @@ public class EventSignUpScreenController extends ScreenController {
         }
     }
 
+    /**
+     * Show the events a page at a time until the user picks one by its index
+     *
+     * @return the id of the chosen event
+     */
+    public String chooseEvent() {
+        int cursor = 0;
+        while (true) {
+            int next = Math.min(cursor + PAGE_SIZE, eventController.getEventCount());
+            boolean hasMore = next < eventController.getEventCount();
+            this.presenter.promptEvents(eventController.getEventsPage(cursor, PAGE_SIZE), hasMore);
+            String eventIndex = this.scanner.nextLine();
+            if (hasMore && eventIndex.equals("n")) {
+                cursor = next;
+                continue;
+            }
+            int index = Integer.parseInt(eventIndex);
+            return eventController.getEventId(index-1);
+        }
+    }
+
+    public void waitlistOption(String eventId, String userId) {
+        this.presenter.promptWaitlist(eventController.getWaitlistSize(eventId));
+        String choice = this.scanner.nextLine();
+        if (!choice.equals("1")) {
+            return;
+        }
+        if (eventController.joinWaitlist(eventId, userId)) {
+            this.presenter.printWaitlistMessage();
+        } else {
+            this.presenter.printFailMessage();
+        }
+    }
+
     public void cancelOption() {
         String userEmail = authController.fetchLoggedInUser();
         String userId = usersManager.getIDFromUsername(userEmail);
         if (this.haveEvent()) {
-            String info = eventController.getEventsInfo();
-            this.presenter.promptEvents(info);
-            String eventIndex = this.scanner.nextLine();
-            int index = Integer.parseInt(eventIndex);
-            String eventId = eventController.getEventId(index-1);
+            String eventId = this.chooseEvent();
             if (eventController.cancelEvent(eventId, userId)) {
                 this.presenter.printSuccessMessage();
             } else {
@@ -1,5 +1,6 @@
 package main.screencontrollers;
 
+import main.controllers.EventController;
 import main.controllers.OrganizerController;
 import main.controllers.ProgramController;
 import main.presenters.EventsManagementScreen;
@@ -19,6 +20,8 @@ import java.util.List;
  */
 public class EventsManagementScreenController extends ScreenController {
 
+    private static final int PAGE_SIZE = 20;
+    private static final int MATCHES = 10;
     OrganizerController organizerController;
     EventsManagementScreen presenter;
 
@@ -180,19 +183,27 @@ public class EventsManagementScreenController extends ScreenController {
      * @return String of eventId
      */
     public String getEventID() {
-        String info = organizerController.getEventController().getEventsInfo();
-        presenter.printSchedule(info);
-        presenter.promptEvent();
-        handleEmptyList(organizerController.getEventController().getAllEvents());
-        try {
-            String eventIndex = scanner.nextLine();
-            int i = Integer.parseInt(eventIndex);
-            return organizerController.getEventController().getEventId(i);
-        } catch (IllegalArgumentException e) {
-            presenter.printInvalidInput();
-            return getEventID();
+        EventController eventController = organizerController.getEventController();
+        int cursor = 0;
+        while (true) {
+            int next = Math.min(cursor + PAGE_SIZE, eventController.getEventCount());
+            boolean hasMore = next < eventController.getEventCount();
+            presenter.printSchedule(eventController.getEventsPage(cursor, PAGE_SIZE));
+            if (hasMore) presenter.promptMoreEvents();
+            presenter.promptEvent();
+            handleEmptyList(eventController.getAllEvents());
+            try {
+                String eventIndex = scanner.nextLine();
+                if (hasMore && eventIndex.equals("n")) {
+                    cursor = next;
+                    continue;
+                }
+                int i = Integer.parseInt(eventIndex);
+                return eventController.getEventId(i - 1);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                presenter.printInvalidInput();
+            }
         }
-
     }
 
     /**
@@ -202,13 +213,19 @@ public class EventsManagementScreenController extends ScreenController {
      * @return String of speakerId
      */
     public String getSpeakerID() {
-        List<String> speakers = organizerController.getAllSpeakers();
-        handleEmptyList(speakers);
+        handleEmptyList(organizerController.findSpeakers("", 1));
+        presenter.promptSpeakerSearch();
+        String prefix = scanner.nextLine().trim();
+        List<String> speakers = organizerController.findSpeakers(prefix, MATCHES);
+        if (speakers.isEmpty()) {
+            presenter.printNoSpeakerMatch(prefix);
+            return getSpeakerID();
+        }
         try {
-            presenter.promptSpeaker(organizerController.speakerToString());
+            presenter.promptSpeaker(organizerController.speakersToString(speakers));
             String speakerIndex = scanner.nextLine();
             return speakers.get(Integer.parseInt(speakerIndex) - 1);
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
             presenter.printInvalidInput();
             return getSpeakerID();
         }
@@ -6,6 +6,7 @@ import main.usecases.EventsManager;
 import main.usecases.MessageManager;
 import main.usecases.RoomManager;
 import main.usecases.UsersManager;
+import main.usecases.WaitlistManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -25,7 +26,7 @@ public class GatewayScreenController extends ScreenController {
     }
 
     private void optionsPrompt() {
-        List<String> options = Arrays.asList("0", "1", "2", "3", "4");
+        List<String> options = Arrays.asList("0", "1", "2", "3", "4", "5");
         this.presenter.optionsPrompt();
         String choice = this.scanner.nextLine();
         while (!options.contains(choice)) {
@@ -50,6 +51,9 @@ public class GatewayScreenController extends ScreenController {
             case "4":
                 this.saveMessages();
                 break;
+            case "5":
+                this.saveWaitlists();
+                break;
         }
         return;
 
@@ -81,9 +85,23 @@ public class GatewayScreenController extends ScreenController {
 
     private void saveMessages() {
         this.presenter.saveMessages();
+        try {
+            //let broadcasts still on their way reach their inboxes before saving
+            this.programController.getBroadcastPipeline().drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         MessageManager messageManager = this.programController.getMessageManager();
         messageManager.saveMessagesToGateway(this.programController.getGateway());
         this.presenter.success();
         this.optionsPrompt();
     }
+
+    private void saveWaitlists() {
+        this.presenter.saveWaitlists();
+        WaitlistManager waitlistManager = this.programController.getWaitlistManager();
+        waitlistManager.saveWaitlistsToGateway(this.programController.getGateway());
+        this.presenter.success();
+        this.optionsPrompt();
+    }
 }
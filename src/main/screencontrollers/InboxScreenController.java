@@ -5,11 +5,16 @@ import main.controllers.InboxController;
 import main.controllers.ProgramController;
 import main.presenters.InboxScreen;
 
-import java.util.LinkedList;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 public class InboxScreenController extends ScreenController {
+    private static final int PAGE_SIZE = 10;
 
     InboxScreen presenter = new InboxScreen();
     InboxController inboxController;
@@ -17,6 +22,10 @@ public class InboxScreenController extends ScreenController {
 
     List<String> messageList;
     List<String> messageIndexes;
+    int messageCount;
+    int cursor;
+    boolean showingNewest;
+    NewMessageSubscriber newMessages;
 
     public InboxScreenController(ProgramController programController) {
         super(programController);
@@ -24,6 +33,7 @@ public class InboxScreenController extends ScreenController {
     }
 
     public void start() {
+        this.subscribe();
         this.presenter.welcomeMessage();
         this.optionsPrompt();
         this.end();
@@ -31,15 +41,25 @@ public class InboxScreenController extends ScreenController {
     }
 
     private void optionsPrompt() {
-        this.presenter.optionsPrompt();
+        if (this.showingNewest && this.newMessages.pending() > 0) {
+            this.presenter.newMessagesArrived(this.newMessages.pending());
+        }
+        this.presenter.optionsPrompt(this.inboxController.getUnreadCountOfUser(this.currentUserId()));
         String choice = this.scanner.nextLine();
         switch (choice) {
             case "0":
+                this.newMessages.cancel();
                 this.programController.goToPreviousScreenController();
                 return;
             case "1":
                 this.listMessages();
                 break;
+            case "2":
+                this.listUnreadMessages();
+                break;
+            case "3":
+                this.searchMessages();
+                break;
             default:
                 this.presenter.invalidOption();
                 this.optionsPrompt();
@@ -47,30 +67,147 @@ public class InboxScreenController extends ScreenController {
         }
     }
 
-    private void fetchMessages() {
+    private String currentUserId() {
         AuthController currentAuthController = this.programController.getAuthController();
-        String currentUserId = currentAuthController.fetchLoggedInUser();
-        this.messages = this.inboxController.getMessagesOfUser(currentUserId);
-        this.messageIndexes = new LinkedList<String>();
-        this.messageList = new LinkedList<String>();
+        return currentAuthController.fetchLoggedInUser();
+    }
 
-        for (Map.Entry<String, String> entry : this.messages.entrySet()) {
-            this.messageIndexes.add(entry.getKey());
-            this.messageList.add(entry.getValue());
+    private void subscribe() {
+        if (this.newMessages != null) {
+            this.newMessages.cancel();
         }
+        this.newMessages = new NewMessageSubscriber(PAGE_SIZE);
+        this.inboxController.getNotificationsOfUser(this.currentUserId()).subscribe(this.newMessages);
+        this.showingNewest = false;
+    }
+
+    private void fetchMessages() {
+        String currentUserId = this.currentUserId();
+        //the page fetched now already has whatever arrived so far
+        this.newMessages.drain();
+        this.messageCount = this.inboxController.getMessageCountOfUser(currentUserId);
+        if (this.cursor > this.messageCount) {
+            this.cursor = this.messageCount;
+        }
+        this.messages = this.inboxController.getMessagesOfUser(currentUserId, this.cursor, PAGE_SIZE);
+        this.messageIndexes = new ArrayList<>(this.messages.keySet());
+        this.messageList = new ArrayList<>(this.messages.values());
+        this.showingNewest = this.cursor == this.messageCount;
+        if (this.showingNewest) {
+            this.inboxController.markPageOfUserRead(currentUserId,
+                    this.messageCount - this.messageList.size(), this.messageCount);
+        }
+    }
 
+    /**
+     * Put the messages that arrived since the newest page was fetched on top of it, so that it does
+     * not have to be fetched again. If any arrival was missed, the page is fetched again instead.
+     */
+    private void addNewMessages() {
+        String currentUserId = this.currentUserId();
+        List<String> arrived = this.newMessages.drainAll(this.messageCount,
+                this.inboxController.getMessageCountOfUser(currentUserId));
+        if (arrived == null) {
+            this.subscribe();
+            this.cursor = Integer.MAX_VALUE;
+            this.fetchMessages();
+            return;
+        }
+        for (String messageId : arrived) {
+            this.messageIndexes.add(0, messageId);
+            this.messageList.add(0, this.inboxController.getMessageString(messageId));
+        }
+        while (this.messageList.size() > PAGE_SIZE) {
+            this.messageIndexes.remove(this.messageIndexes.size() - 1);
+            this.messageList.remove(this.messageList.size() - 1);
+        }
+        this.messageCount += arrived.size();
+        this.cursor = this.messageCount;
+        this.inboxController.markPageOfUserRead(currentUserId,
+                this.messageCount - this.messageList.size(), this.messageCount);
     }
 
     private void listMessages() {
+        if (this.showingNewest) {
+            this.addNewMessages();
+        } else {
+            this.cursor = Integer.MAX_VALUE;
+            this.fetchMessages();
+        }
+        this.showPage();
+    }
+
+    private void listPage() {
         this.fetchMessages();
+        this.showPage();
+    }
+
+    private void showPage() {
         if (this.messageList.size() == 0) {
             this.presenter.inboxIsEmpty();
             this.optionsPrompt();
             return;
         }
-        this.presenter.listMessages(this.messageList);
+        this.presenter.listMessages(this.messageList, this.messageCount, this.hasOlder());
+        this.messageDetailPrompt();
+
+    }
+
+    private void listUnreadMessages() {
+        String currentUserId = this.currentUserId();
+        this.messages = this.inboxController.readUnreadMessagesOfUser(currentUserId, PAGE_SIZE);
+        this.messageIndexes = new ArrayList<>(this.messages.keySet());
+        this.messageList = new ArrayList<>(this.messages.values());
+        this.cursor = 0;
+        this.showingNewest = false;
+        if (this.messageList.size() == 0) {
+            this.presenter.noUnreadMessages();
+            this.optionsPrompt();
+            return;
+        }
+        this.presenter.listUnreadMessages(this.messageList, this.inboxController.getUnreadCountOfUser(currentUserId));
+        this.messageDetailPrompt();
+    }
+
+    private void searchMessages() {
+        this.presenter.searchKeywordsPrompt();
+        String keywords = this.scanner.nextLine();
+        this.presenter.searchSenderPrompt();
+        String sender = this.scanner.nextLine().trim();
+        LocalDateTime from = this.readDate(true);
+        LocalDateTime to = this.readDate(false);
+        this.messages = this.inboxController.searchMessagesOfUser(this.currentUserId(), keywords,
+                sender.isEmpty() ? null : sender, from, to, PAGE_SIZE);
+        this.messageIndexes = new ArrayList<>(this.messages.keySet());
+        this.messageList = new ArrayList<>(this.messages.values());
+        this.cursor = 0;
+        this.showingNewest = false;
+        if (this.messageList.size() == 0) {
+            this.presenter.noSearchResults();
+            this.optionsPrompt();
+            return;
+        }
+        this.presenter.listSearchResults(this.messageList);
         this.messageDetailPrompt();
+    }
 
+    private LocalDateTime readDate(boolean start) {
+        this.presenter.searchDatePrompt(start);
+        String date = this.scanner.nextLine().trim();
+        if (date.isEmpty()) {
+            return null;
+        }
+        try {
+            LocalDate day = LocalDate.parse(date);
+            return start ? day.atStartOfDay() : day.atTime(LocalTime.MAX);
+        } catch (DateTimeParseException e) {
+            this.presenter.invalidOption();
+            return this.readDate(start);
+        }
+    }
+
+    private boolean hasOlder() {
+        return this.cursor - this.messageList.size() > 0;
     }
 
     private void messageDetailPrompt() {
@@ -80,10 +217,15 @@ public class InboxScreenController extends ScreenController {
             this.optionsPrompt();
             return;
         }
+        if (choice.equals("n") && this.hasOlder()) {
+            this.cursor -= this.messageList.size();
+            this.listPage();
+            return;
+        }
 
         try {
             int messageNum = Integer.parseInt(choice);
-            if (messageNum > this.messages.size()) {
+            if (messageNum < 1 || messageNum > this.messageList.size()) {
                 this.presenter.invalidOption();
                 this.messageDetailPrompt();
                 return;
@@ -100,6 +242,7 @@ public class InboxScreenController extends ScreenController {
     }
 
     private void openMessageDetailScreen(String messageId) {
+        this.newMessages.cancel();
         ScreenController messageDetailScreenController =
                 new MessageDetailScreenController(this.programController, messageId);
         this.programController.setNewScreenController(messageDetailScreenController);
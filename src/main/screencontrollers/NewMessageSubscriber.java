@@ -0,0 +1,97 @@
+package main.screencontrollers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * Collects the ids of messages that arrive while an inbox is open, requesting at most one page
+ * of them at a time.
+ */
+public class NewMessageSubscriber implements Flow.Subscriber<String> {
+    private final Queue<String> arrived = new ConcurrentLinkedQueue<>();
+    private final int pageSize;
+    private volatile Flow.Subscription subscription;
+
+    /**
+     * Class constructor
+     *
+     * @param pageSize the most ids to request at once
+     */
+    public NewMessageSubscriber(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(this.pageSize);
+    }
+
+    @Override
+    public void onNext(String messageId) {
+        this.arrived.add(messageId);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    /**
+     * Take the ids that arrived so far, oldest first, and request as many more.
+     *
+     * @return the ids of the new messages
+     */
+    public List<String> drain() {
+        List<String> ids = new ArrayList<>();
+        String id;
+        while ((id = this.arrived.poll()) != null) {
+            ids.add(id);
+        }
+        if (!ids.isEmpty() && this.subscription != null) {
+            this.subscription.request(ids.size());
+        }
+        return ids;
+    }
+
+    /**
+     * Take the ids that arrived so far, as long as together with the messages already shown they
+     * account for every message in the inbox.
+     *
+     * @param seenCount    the number of messages in the inbox when it was last shown
+     * @param messageCount the number of messages in the inbox now
+     * @return the ids of the new messages, or null if some were dropped or are still held back by
+     * the publisher, in which case the inbox has to be fetched again
+     */
+    public List<String> drainAll(int seenCount, int messageCount) {
+        List<String> ids = this.drain();
+        if (seenCount + ids.size() + this.pending() != messageCount) {
+            return null;
+        }
+        return ids;
+    }
+
+    /**
+     * Get the number of ids that arrived but were not taken yet.
+     *
+     * @return the number of pending ids
+     */
+    public int pending() {
+        return this.arrived.size();
+    }
+
+    /**
+     * Stop receiving ids.
+     */
+    public void cancel() {
+        if (this.subscription != null) {
+            this.subscription.cancel();
+        }
+    }
+}
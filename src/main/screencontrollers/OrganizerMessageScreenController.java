@@ -2,6 +2,7 @@ package main.screencontrollers;
 
 import main.controllers.ProgramController;
 import main.presenters.OrganizerMessageScreen;
+import main.usecases.BroadcastDelivery;
 
 import java.util.ArrayList;
 
@@ -23,12 +24,13 @@ public class OrganizerMessageScreenController extends AttendeeMessageScreenContr
      */
     public OrganizerMessageScreenController(ProgramController programController) {
         super(programController);
-        this.organizerMessageScreen = new OrganizerMessageScreen(this.usersManager, this.recipients);
+        this.organizerMessageScreen = new OrganizerMessageScreen(this.usersManager);
     }
 
     /**
      * Asks OrganizerMessageScreen to display the appropriate prompts, receives input from the organizer, and processes
-     * them accordingly to create and send messages.
+     * them accordingly to create and send messages. The organizer either broadcasts to a group, or searches for
+     * users by the start of their username and picks some of the first matches.
      */
     public void start() {
         this.organizerMessageScreen.prompt();
@@ -37,22 +39,22 @@ public class OrganizerMessageScreenController extends AttendeeMessageScreenContr
             if (next.equals("all") || next.equals("attendees") || next.equals("speakers")) {
                 sendMessage(next);
             } else {
-                ArrayList<String> inputs = new ArrayList<>();
-                for (int i = 0; i < next.length(); i += 2) {
-                    inputs.add((next.substring(i, i + 1)));
-                }
-                while (!isValid(inputs) && !next.equals("0")) {
-                    this.organizerMessageScreen.prompt2(next);
+                this.recipients = this.messageController.findReceivers(this.loggedInUser, next.trim(), MATCHES);
+                if (this.recipients.isEmpty()) {
+                    this.organizerMessageScreen.noMatches(next);
+                } else {
+                    this.organizerMessageScreen.prompt(this.recipients);
                     next = this.scanner.nextLine();
-                    inputs = new ArrayList<>();
-                    for (int i = 0; i < next.length(); i += 2) {
-                        inputs.add((next.substring(i, i + 1)));
+                    ArrayList<String> inputs = splitInputs(next);
+                    while (!next.equals("0") && !isValid(inputs)) {
+                        this.organizerMessageScreen.prompt2(next);
+                        next = this.scanner.nextLine();
+                        inputs = splitInputs(next);
+                    }
+                    if (!next.equals("0")) {
+                        sendMessage(inputs);
                     }
                 }
-                if (next.equals("0")) {
-                    break;
-                }
-                sendMessage(inputs);
             }
             this.organizerMessageScreen.prompt();
             next = this.scanner.nextLine();
@@ -69,10 +71,9 @@ public class OrganizerMessageScreenController extends AttendeeMessageScreenContr
         }
         ArrayList<String> recipients = new ArrayList<>();
         for (String i : inputs) {
-            recipients.add(this.recipients.get(Integer.parseInt(i) - 1));
+            recipients.add(this.recipients.get(Integer.parseInt(i.trim()) - 1));
         }
-        this.messageController.broadCast(this.loggedInUser, recipients, next);
-        this.organizerMessageScreen.successMessage();
+        this.printDelivery(this.messageController.broadCast(this.loggedInUser, recipients, next));
     }
 
     private void sendMessage(String type) {
@@ -84,37 +85,38 @@ public class OrganizerMessageScreenController extends AttendeeMessageScreenContr
         System.out.println(next);
         switch (type) {
             case "all":
-                this.messageController.broadCastToAll(this.loggedInUser, next);
-                this.organizerMessageScreen.successMessage();
+                this.printDelivery(this.messageController.broadCastToAll(this.loggedInUser, next));
                 break;
-            case "attendee":
-                this.messageController.broadCastToAttendees(this.loggedInUser, next);
-                this.organizerMessageScreen.successMessage();
+            case "attendees":
+                this.printDelivery(this.messageController.broadCastToAttendees(this.loggedInUser, next));
                 break;
-            case "speaker":
-                this.messageController.broadCastToSpeakers(this.loggedInUser, next);
-                this.organizerMessageScreen.successMessage();
+            case "speakers":
+                this.printDelivery(this.messageController.broadCastToSpeakers(this.loggedInUser, next));
+        }
+    }
+
+    private void printDelivery(BroadcastDelivery delivery) {
+        if (delivery == null) {
+            this.organizerMessageScreen.successMessage();
+        } else {
+            this.organizerMessageScreen.deliveryMessage(delivery.getTotal());
+        }
+    }
+
+    private ArrayList<String> splitInputs(String next) {
+        ArrayList<String> inputs = new ArrayList<>();
+        for (String input : next.split(",")) {
+            inputs.add(input.trim());
         }
+        return inputs;
     }
 
     private boolean isValid(ArrayList<String> inputs) {
         for (String input : inputs) {
-            if (!isNumeric(input)) {
-                return false;
-            }
-            if (!(0 < Integer.parseInt(input) && Integer.parseInt(input) <= recipients.size())) {
+            if (!isRecipientIndex(input)) {
                 return false;
             }
         }
         return true;
     }
-
-    private boolean isNumeric(String str) {
-        try {
-            Integer.parseInt(str);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
 }
@@ -112,7 +112,7 @@ public class SpeakerMessageScreenController extends ScreenController{
     public void reply(){
         ArrayList<String> potentialReceivers= messageController.replyOptionsForSpeaker(speaker);
         ArrayList<String> options = listBuilderWithIntegers(potentialReceivers.size());
-        speakerMessageScreen.replyOptions(messageController.replyOptionsForSpeakerInString(speaker));
+        speakerMessageScreen.replyOptions(messageController.replyOptionsInString(potentialReceivers));
         String answerInString = scanner.nextLine();
         while(! options.contains(answerInString)){
             speakerMessageScreen.invalidInput(answerInString);
@@ -0,0 +1,124 @@
+package main.usecases;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A BroadcastDelivery tracks one broadcast through the BroadcastPipeline. It tells how many
+ * inboxes the message has reached so far, and its future completes once every inbox has it.
+ */
+public class BroadcastDelivery {
+
+    private final String messageId;
+    private final String sender;
+    private final LocalDateTime sentAt;
+    private final int total;
+    private final AtomicInteger delivered = new AtomicInteger();
+    private final AtomicInteger pendingBatches;
+    private final CompletableFuture<BroadcastDelivery> future = new CompletableFuture<>();
+
+    /**
+     * Class constructor
+     *
+     * @param messageId of the message being delivered
+     * @param sender    of the message
+     * @param sentAt    the time the message was sent
+     * @param total     number of inboxes the message goes to
+     * @param batches   number of batches the inboxes are split into
+     */
+    BroadcastDelivery(String messageId, String sender, LocalDateTime sentAt, int total, int batches) {
+        this.messageId = messageId;
+        this.sender = sender;
+        this.sentAt = sentAt;
+        this.total = total;
+        this.pendingBatches = new AtomicInteger(batches);
+        if (batches == 0) {
+            future.complete(this);
+        }
+    }
+
+    /**
+     * Record that a batch of inboxes has the message.
+     *
+     * @param count number of inboxes in the batch
+     */
+    void batchDelivered(int count) {
+        delivered.addAndGet(count);
+        if (pendingBatches.decrementAndGet() == 0) {
+            future.complete(this);
+        }
+    }
+
+    /**
+     * Record that a batch of inboxes could not be given the message.
+     *
+     * @param cause of the failure
+     */
+    void fail(Throwable cause) {
+        future.completeExceptionally(cause);
+    }
+
+    /**
+     * Get the id of the message being delivered
+     *
+     * @return messageId
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Get the sender of the message being delivered
+     *
+     * @return sender
+     */
+    public String getSender() {
+        return sender;
+    }
+
+    /**
+     * Get the time the message being delivered was sent
+     *
+     * @return sentAt
+     */
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    /**
+     * Get the number of inboxes the message goes to
+     *
+     * @return total
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the number of inboxes that have the message so far
+     *
+     * @return delivered
+     */
+    public int getDelivered() {
+        return delivered.get();
+    }
+
+    /**
+     * Check if every inbox has the message
+     *
+     * @return true iff the delivery is done
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Get a future that completes with this delivery once every inbox has the message
+     *
+     * @return the future of the delivery
+     */
+    public CompletableFuture<BroadcastDelivery> getFuture() {
+        return future;
+    }
+}
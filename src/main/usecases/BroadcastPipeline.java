@@ -0,0 +1,244 @@
+package main.usecases;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BroadcastPipeline puts broadcast messages into inboxes off the caller's thread. A broadcast
+ * is split into batches of receivers that go into a bounded queue, and a pool of worker threads
+ * takes batches off the queue and writes them into the inboxes. When the queue is full, submitting
+ * waits until the workers have made room, so a burst of broadcasts cannot grow the queue without
+ * bound.
+ *
+ * Batches are delivered in no particular order, so two broadcasts sent close together may reach
+ * an inbox in either order, and a direct message sent right after a broadcast may reach an inbox
+ * before it. An inbox keeps messages in the order they arrive, and its pages and read watermark
+ * are positions in that order, so a late broadcast lands after everything already in the inbox
+ * and counts as unread; it is only the sent dates that may not be in order along the inbox.
+ *
+ * The workers are daemon threads, so drain or shut down the pipeline before the program exits,
+ * or queued batches are lost.
+ */
+public class BroadcastPipeline {
+
+    public static final int BATCH_SIZE = 256;
+    public static final int QUEUE_CAPACITY = 64;
+
+    private final InboxManager inboxManager;
+    private final BlockingQueue<Batch> queue;
+    private final int workerCount;
+    private ExecutorService workers;
+    private int pendingBatches = 0;
+
+    /**
+     * A slice of the receivers of one broadcast.
+     */
+    private static class Batch {
+        private final BroadcastDelivery delivery;
+        private final String[] receivers;
+
+        private Batch(BroadcastDelivery delivery, String[] receivers) {
+            this.delivery = delivery;
+            this.receivers = receivers;
+        }
+    }
+
+    /**
+     * Class constructor with one worker per core
+     *
+     * @param inboxManager that holds the inboxes to deliver to
+     */
+    public BroadcastPipeline(InboxManager inboxManager) {
+        this(inboxManager, QUEUE_CAPACITY, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param inboxManager  that holds the inboxes to deliver to
+     * @param queueCapacity the most batches waiting to be delivered
+     * @param workerCount   number of worker threads
+     */
+    public BroadcastPipeline(InboxManager inboxManager, int queueCapacity, int workerCount) {
+        this.inboxManager = inboxManager;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * Queue a message for delivery to every receiver. Waits while the queue is full. If the
+     * calling thread is interrupted while waiting, the rest of the batches are delivered on it.
+     *
+     * @param messageId of the message to deliver
+     * @param sender    of the message
+     * @param sentAt    the time the message was sent
+     * @param receivers the ids of the users whose inboxes get the message
+     * @return a handle to follow the delivery
+     */
+    public BroadcastDelivery submit(String messageId, String sender, LocalDateTime sentAt,
+                                    Collection<String> receivers) {
+        List<String[]> slices = slice(receivers);
+        int total = 0;
+        for (String[] slice : slices) {
+            total += slice.length;
+        }
+        BroadcastDelivery delivery = new BroadcastDelivery(messageId, sender, sentAt, total, slices.size());
+        if (slices.isEmpty()) {
+            return delivery;
+        }
+        startWorkers();
+        for (int i = 0; i < slices.size(); i++) {
+            Batch batch = new Batch(delivery, slices.get(i));
+            batchQueued();
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (int j = i; j < slices.size(); j++) {
+                    if (j > i) {
+                        batchQueued();
+                    }
+                    deliver(new Batch(delivery, slices.get(j)));
+                }
+                break;
+            }
+        }
+        return delivery;
+    }
+
+    /**
+     * Get the number of batches waiting for a worker
+     *
+     * @return the number of queued batches
+     */
+    public int getQueuedBatches() {
+        return queue.size();
+    }
+
+    /**
+     * Wait until every batch submitted so far has been delivered, helping the workers by delivering
+     * queued batches on the calling thread.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public void drain() throws InterruptedException {
+        Batch batch;
+        while ((batch = queue.poll()) != null) {
+            deliverSafely(batch);
+        }
+        synchronized (this) {
+            while (pendingBatches > 0) {
+                wait();
+            }
+        }
+    }
+
+    /**
+     * Stop the workers once everything queued has been delivered. The pipeline starts new workers
+     * if more broadcasts are submitted afterwards.
+     */
+    public void shutdown() {
+        ExecutorService stopping;
+        try {
+            drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            stopping = workers;
+            workers = null;
+        }
+        if (stopping != null) {
+            stopping.shutdownNow();
+            try {
+                stopping.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        //anything submitted while stopping is delivered here
+        Batch batch;
+        while ((batch = queue.poll()) != null) {
+            deliverSafely(batch);
+        }
+    }
+
+    private synchronized void batchQueued() {
+        pendingBatches++;
+    }
+
+    private synchronized void batchDone() {
+        pendingBatches--;
+        if (pendingBatches == 0) {
+            notifyAll();
+        }
+    }
+
+    private synchronized void startWorkers() {
+        if (workers != null) {
+            return;
+        }
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "broadcast-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Batch batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            deliverSafely(batch);
+        }
+    }
+
+    private void deliverSafely(Batch batch) {
+        try {
+            deliver(batch);
+        } catch (RuntimeException e) {
+            batch.delivery.fail(e);
+        }
+    }
+
+    private void deliver(Batch batch) {
+        try {
+            inboxManager.putMessageInToInboxes(batch.delivery.getMessageId(), batch.delivery.getSender(),
+                    batch.delivery.getSentAt(), Arrays.asList(batch.receivers));
+            batch.delivery.batchDelivered(batch.receivers.length);
+        } finally {
+            batchDone();
+        }
+    }
+
+    private static List<String[]> slice(Collection<String> receivers) {
+        List<String[]> slices = new ArrayList<>();
+        List<String> current = new ArrayList<>(BATCH_SIZE);
+        for (String receiver : receivers) {
+            current.add(receiver);
+            if (current.size() == BATCH_SIZE) {
+                slices.add(current.toArray(new String[0]));
+                current.clear();
+            }
+        }
+        if (!current.isEmpty()) {
+            slices.add(current.toArray(new String[0]));
+        }
+        return slices;
+    }
+}
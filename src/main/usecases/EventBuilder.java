@@ -50,6 +50,38 @@ public class EventBuilder {
         this.speakerID = speakerID;
     }
 
+    /**
+     * Get title of event
+     * @return title of event
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Get time of event
+     * @return time of event, or null if not set yet
+     */
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * Get room of event
+     * @return roomID of event, or null if not set yet
+     */
+    public String getRoom() {
+        return roomID;
+    }
+
+    /**
+     * Get speaker of event
+     * @return speakerID of event
+     */
+    public String getSpeaker() {
+        return speakerID;
+    }
+
     /**
      * Generate new event
      * @return Event
@@ -2,10 +2,12 @@ package main.usecases;
 
 import main.entities.Event;
 import main.entities.Room;
+import main.entities.User;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
+import java.util.Collection;
 
 
 /**
@@ -19,31 +21,31 @@ import java.util.Map;
 public class EventInfoManager {
 
     private final Event event;
-    private final Map<String, Event> schedule;
+    private final EventsManager eventsManager;
     private RoomManager roomManager;
     private UsersManager usersManager;
 
     /**
      * Class constructor
      *
-     * @param eventId  that going to be modified
-     * @param schedule of events
+     * @param eventId       that going to be modified
+     * @param eventsManager that holds the schedule of events
      */
-    public EventInfoManager(String eventId, Map<String, Event> schedule) {
-        this.schedule = schedule;
-        this.event = schedule.get(eventId);
+    public EventInfoManager(String eventId, EventsManager eventsManager) {
+        this.eventsManager = eventsManager;
+        this.event = eventsManager.getSchedule().get(eventId);
     }
 
     /**
      *
      * @param eventId that going to be modified
-     * @param schedule of events
+     * @param eventsManager that holds the schedule of events
      * @param rm to get room info
      * @param um to get speaker info
      */
-    public EventInfoManager(String eventId, Map<String, Event> schedule, RoomManager rm, UsersManager um) {
-        this.schedule = schedule;
-        this.event = schedule.get(eventId);
+    public EventInfoManager(String eventId, EventsManager eventsManager, RoomManager rm, UsersManager um) {
+        this.eventsManager = eventsManager;
+        this.event = eventsManager.getSchedule().get(eventId);
         this.roomManager = rm;
         this.usersManager = um;
     }
@@ -55,9 +57,14 @@ public class EventInfoManager {
      * @return verification of success addition
      */
     public boolean addSpeaker(String newSpeakerId) {
-        //for one speaker event
-        if (event.getSpeakerID() == null) {
+        //for one speaker event, the new speaker must be free at the time of the event
+        ScheduleIndex scheduleIndex = eventsManager.getScheduleIndex();
+        if (event.getSpeakerID() == null
+                && !scheduleIndex.isSpeakerBooked(event.getTime(), newSpeakerId, event.getId())) {
+            scheduleIndex.removeEvent(event);
             event.setSpeakerID(newSpeakerId);
+            scheduleIndex.addEvent(event);
+            eventsManager.indexSpeaker(event.getId(), newSpeakerId);
             return true;
         }
         return false;
@@ -74,7 +81,11 @@ public class EventInfoManager {
     public boolean removeSpeaker(String removeSpeakerId) {
         //for one speaker event, do not have to worry about time conflict
         if (event.getSpeakerID() != null && event.getSpeakerID().equals(removeSpeakerId)) {
+            ScheduleIndex scheduleIndex = eventsManager.getScheduleIndex();
+            scheduleIndex.removeEvent(event);
             event.setSpeakerID(null);
+            scheduleIndex.addEvent(event);
+            eventsManager.unindexSpeaker(event.getId(), removeSpeakerId);
             return true;
         }
         return false;
@@ -90,11 +101,19 @@ public class EventInfoManager {
      * @return check if user is added
      */
     public boolean addUser(String newUserId) {
-        if (!event.getAttendeesID().contains(newUserId)) {
-            event.addAttendees(newUserId);
-            return true;
-        }
-        return false;
+        return eventsManager.addAttendee(event, newUserId, -1);
+    }
+
+    /**
+     * Add an User from a particular event if there is a seat left. Safe to call from many
+     * threads at once for the same event.
+     *
+     * @param newUserId that needs to be added
+     * @param capacity  of the room the event takes place in
+     * @return check if user is added
+     */
+    public boolean addUser(String newUserId, int capacity) {
+        return eventsManager.addAttendee(event, newUserId, capacity);
     }
 
 
@@ -105,11 +124,7 @@ public class EventInfoManager {
      * @return check for successful removal
      */
     public boolean removeUser(String removedUserId) {
-        if (event.getAttendeesID().contains(removedUserId)) {
-            event.removeAttendees(removedUserId);
-            return true;
-        }
-        return false;
+        return eventsManager.removeAttendee(event, removedUserId);
     }
 
 
@@ -125,18 +140,15 @@ public class EventInfoManager {
         if ((9 > newTime.getHour()) || (newTime.getHour()> 17)){
             return false;
         }
-        for (String id : schedule.keySet()) {
-            Event e = schedule.get(id);
-            //time conflict at same room
-            if ((e.getTime() == newTime) && (e.getRoomID().equals(newRoomId))) {
-                return false;
-            }//speaker conflict at same time
-            else if ((e.getTime() == newTime) && (e.getSpeakerID().equals(event.getSpeakerID()))) {
-                return false;
-            }
+        //time conflict at same room or speaker conflict at same time
+        ScheduleIndex scheduleIndex = eventsManager.getScheduleIndex();
+        if (scheduleIndex.hasConflict(event.getId(), newTime, newRoomId, event.getSpeakerID())) {
+            return false;
         }
+        scheduleIndex.removeEvent(event);
         event.setTime(newTime);
         event.setRoomID(newRoomId);
+        scheduleIndex.addEvent(event);
         return true;
     }
 
@@ -146,7 +158,7 @@ public class EventInfoManager {
      *
      * @return usersId
      */
-    public List<String> getUsers() {
+    public Collection<String> getUsers() {
         return event.getAttendeesID();
     }
 
@@ -166,21 +178,34 @@ public class EventInfoManager {
      * @return the information of the event as a string representation.
      */
     public String toString() {
-        String speakerName = "";
-        int roomNum = -1;
-        for(String user: usersManager.getAllUsers()){
-            if(this.usersManager.fetchRole(user).equals("Speaker") && user.equals(event.getSpeakerID())){
-                speakerName = usersManager.fetchUser(user).getUsername();
-            }
+        StringBuilder info = new StringBuilder();
+        try {
+            appendTo(info);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        for(Room room: roomManager.getAllRoomsObject()){
-            if (room.getId().equals(event.getRoomID())){
-                roomNum = room.getRoomNum();
-            }
+        return info.toString();
+    }
+
+    /**
+     * Write the information of the event, as given by toString, to out. The speaker and room are
+     * looked up by id.
+     *
+     * @param out to write the information to
+     * @throws IOException if out cannot be written to
+     */
+    public void appendTo(Appendable out) throws IOException {
+        String speakerName = "";
+        String speakerId = event.getSpeakerID();
+        User speaker = speakerId == null ? null : usersManager.fetchUser(speakerId);
+        if (speaker != null && speaker.getRole().equals("Speaker")) {
+            speakerName = speaker.getUsername();
         }
-        return "Title: " + event.getTitle() + "\n"
-                + "Time: " + event.getTime() + "\n"
-                + "Speaker: " + speakerName + "\n"
-                + "Room: " + roomNum;
+        Room room = event.getRoomID() == null ? null : roomManager.getRoomGivenId(event.getRoomID());
+        int roomNum = room == null ? -1 : room.getRoomNum();
+        out.append("Title: ").append(event.getTitle()).append("\n")
+                .append("Time: ").append(String.valueOf(event.getTime())).append("\n")
+                .append("Speaker: ").append(speakerName).append("\n")
+                .append("Room: ").append(String.valueOf(roomNum));
     }
 }
@@ -1,12 +1,21 @@
 package main.usecases;
 
 import main.entities.Event;
+import main.entities.IdDictionary;
 import main.gateways.Gateway;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The EventsManager holds a list of Events, and modify Event with its corresponding Users.
@@ -19,9 +28,33 @@ import java.util.Map;
 public class EventsManager {
 
     private Map<String, Event> schedule ;
+    private List<String> eventOrder;
+    private Map<String, Integer> eventPositions;
+    private int removedCount;
+    private ScheduleIndex scheduleIndex;
+    private ConcurrentMap<String, Set<String>> attendeeEvents;
+    private ConcurrentMap<String, Set<String>> speakerEvents;
+    private final IdDictionary userIds;
 
     public EventsManager() {
+        this(new IdDictionary());
+    }
+
+    /**
+     * Creates an empty schedule whose events keep their attendees as ints of the given dictionary
+     * of user ids, so that a user has the same int here as in the UsersManager sharing it.
+     *
+     * @param userIds the dictionary of user ids
+     */
+    public EventsManager(IdDictionary userIds) {
+        this.userIds = userIds;
         this.schedule = new LinkedHashMap<>();
+        this.eventOrder = new ArrayList<>();
+        this.eventPositions = new HashMap<>();
+        this.removedCount = 0;
+        this.scheduleIndex = new ScheduleIndex();
+        this.attendeeEvents = new ConcurrentHashMap<>();
+        this.speakerEvents = new ConcurrentHashMap<>();
     }
 
     /**
@@ -34,23 +67,93 @@ public class EventsManager {
     public boolean scheduleEvent(EventBuilder eventBuilder) {
         Event newEvent = eventBuilder.toEvent();
         //check event happening between 9A.M to 5P.M
-        if ((9 > newEvent.getTime().getHour()) || (newEvent.getTime().getHour()> 17)){
+        if (!isDuringConference(newEvent.getTime())) {
             return false;
         }
-        for (String id : schedule.keySet()) {
-            //if time conflict
-            Event e = schedule.get(id);
-            if ((e.getRoomID().equals(newEvent.getRoomID())) && (e.getTime() == newEvent.getTime())) {
-                return false;
-            } else if ((e.getTime() == newEvent.getTime()) && (e.getSpeakerID().equals(newEvent.getSpeakerID()))) {
-                return false;
-            }
+        //if room or speaker conflict at the same time
+        if (scheduleIndex.hasConflict(newEvent.getId(), newEvent.getTime(), newEvent.getRoomID(),
+                newEvent.getSpeakerID())) {
+            return false;
         }
-        schedule.put(newEvent.getId(), newEvent);
+        putEvent(newEvent);
+        scheduleIndex.addEvent(newEvent);
+        indexSpeaker(newEvent.getId(), newEvent.getSpeakerID());
         return true;
     }
 
 
+    /**
+     * Add a batch of Events to schedule. The batch is sorted by time and swept once, so that events
+     * at the same time are checked against each other and against the schedule together. When two
+     * events in the batch clash, the one that comes first in the batch is kept.
+     *
+     * @param eventBuilders of the events to be added
+     * @return a report of which events were added, in the order given
+     */
+    public ScheduleReport scheduleEvents(List<EventBuilder> eventBuilders) {
+        int n = eventBuilders.size();
+        ScheduleReport report = new ScheduleReport(n);
+        Event[] newEvents = new Event[n];
+        List<Integer> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            newEvents[i] = eventBuilders.get(i).toEvent();
+            LocalDateTime time = newEvents[i].getTime();
+            if (time == null) {
+                report.reject(i, ScheduleReport.MISSING_TIME);
+            } else if (!isDuringConference(time)) {
+                report.reject(i, ScheduleReport.OUTSIDE_HOURS);
+            } else {
+                order.add(i);
+            }
+        }
+        //stable sort, so that clashing events keep their batch order
+        order.sort(Comparator.comparing(i -> newEvents[i].getTime()));
+
+        boolean[] accepted = new boolean[n];
+        Set<String> roomsTaken = new HashSet<>();
+        Set<String> speakersTaken = new HashSet<>();
+        LocalDateTime currentTime = null;
+        for (int i : order) {
+            Event newEvent = newEvents[i];
+            if (!newEvent.getTime().equals(currentTime)) {
+                currentTime = newEvent.getTime();
+                roomsTaken.clear();
+                speakersTaken.clear();
+            }
+            String roomId = newEvent.getRoomID();
+            String speakerId = newEvent.getSpeakerID();
+            if (roomsTaken.contains(roomId)
+                    || scheduleIndex.isRoomBooked(currentTime, roomId, newEvent.getId())) {
+                report.reject(i, ScheduleReport.ROOM_CONFLICT);
+            } else if ((speakerId != null && speakersTaken.contains(speakerId))
+                    || scheduleIndex.isSpeakerBooked(currentTime, speakerId, newEvent.getId())) {
+                report.reject(i, ScheduleReport.SPEAKER_CONFLICT);
+            } else {
+                roomsTaken.add(roomId);
+                if (speakerId != null) {
+                    speakersTaken.add(speakerId);
+                }
+                accepted[i] = true;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (accepted[i]) {
+                Event newEvent = newEvents[i];
+                putEvent(newEvent);
+                scheduleIndex.addEvent(newEvent);
+                indexSpeaker(newEvent.getId(), newEvent.getSpeakerID());
+                report.accept(i, newEvent.getId());
+            }
+        }
+        return report;
+    }
+
+    private static boolean isDuringConference(LocalDateTime time) {
+        return (9 <= time.getHour()) && (time.getHour() <= 17);
+    }
+
+
     /**
      * Remove an Event from the EventSchedule, if schedule is empty or Event is not in
      * schedule, do nothing.
@@ -59,8 +162,16 @@ public class EventsManager {
      * @return check for successful removal
      */
     public boolean removeEvent(String canceledEventId) {
-        if (schedule.containsKey(canceledEventId)) {
-            schedule.remove(canceledEventId);
+        Event canceledEvent = schedule.remove(canceledEventId);
+        if (canceledEvent != null) {
+            // leave a hole instead of shifting the rest, it is closed up on the next lookup by position
+            eventOrder.set(eventPositions.remove(canceledEventId), null);
+            removedCount++;
+            scheduleIndex.removeEvent(canceledEvent);
+            unindexSpeaker(canceledEventId, canceledEvent.getSpeakerID());
+            for (String attendeeId : canceledEvent.getAttendeesID()) {
+                unindexAttendee(canceledEventId, attendeeId);
+            }
             return true;
         }
         return false;
@@ -75,10 +186,8 @@ public class EventsManager {
      */
     public ArrayList<Event> getUserEvents(String userId) {
         ArrayList<Event> userEvents = new ArrayList<>();
-        for (String i : schedule.keySet()) {
-            for (String id : schedule.get(i).getAttendeesID()) {
-                if (id.equals(userId)) userEvents.add(schedule.get(i));
-            }
+        for (String eventId : attendeeEvents.getOrDefault(userId, Collections.emptySet())) {
+            userEvents.add(schedule.get(eventId));
         }
         return userEvents;
     }
@@ -90,11 +199,109 @@ public class EventsManager {
      * @return speakerEvents
      */
     public ArrayList<String> getSpeakerEvents(String speakerId) {
-        ArrayList<String> speakerEvents = new ArrayList<>();
-        for (String i : schedule.keySet()) {
-            if (schedule.get(i).getSpeakerID().equals(speakerId)) speakerEvents.add(schedule.get(i).getId());
+        return new ArrayList<>(speakerEvents.getOrDefault(speakerId, Collections.emptySet()));
+    }
+
+    /**
+     * Record that a user attends an event
+     *
+     * @param eventId of the event
+     * @param userId  of the attendee
+     */
+    void indexAttendee(String eventId, String userId) {
+        addToIndex(attendeeEvents, userId, eventId);
+    }
+
+    /**
+     * Forget that a user attends an event
+     *
+     * @param eventId of the event
+     * @param userId  of the attendee
+     */
+    void unindexAttendee(String eventId, String userId) {
+        removeFromIndex(attendeeEvents, userId, eventId);
+    }
+
+    /**
+     * Sign a user up for an event and record it in the index of the user's events in one step, so
+     * that the event and the index always agree. Changes for the same user run one at a time, which
+     * also keeps a user signing up twice at once from holding a second seat.
+     *
+     * @param event    to sign up for
+     * @param userId   of the attendee
+     * @param capacity number of seats at the event, or a negative number for no limit
+     * @return true iff the user got a seat and was not signed up already
+     */
+    boolean addAttendee(Event event, String userId, int capacity) {
+        boolean[] added = new boolean[1];
+        attendeeEvents.compute(userId, (id, events) -> {
+            added[0] = capacity < 0 ? event.addAttendees(id) : event.addAttendees(id, capacity);
+            if (!added[0]) {
+                return events;
+            }
+            Set<String> updated = events == null ? ConcurrentHashMap.newKeySet() : events;
+            updated.add(event.getId());
+            return updated;
+        });
+        return added[0];
+    }
+
+    /**
+     * Take a user off an event and out of the index of the user's events in one step.
+     *
+     * @param event  to withdraw from
+     * @param userId of the attendee
+     * @return true iff the user was signed up
+     */
+    boolean removeAttendee(Event event, String userId) {
+        boolean[] removed = new boolean[1];
+        attendeeEvents.compute(userId, (id, events) -> {
+            removed[0] = event.removeAttendees(id);
+            if (removed[0] && events != null) {
+                events.remove(event.getId());
+            }
+            return events == null || events.isEmpty() ? null : events;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Record that a speaker speaks at an event
+     *
+     * @param eventId   of the event
+     * @param speakerId of the speaker
+     */
+    void indexSpeaker(String eventId, String speakerId) {
+        addToIndex(speakerEvents, speakerId, eventId);
+    }
+
+    /**
+     * Forget that a speaker speaks at an event
+     *
+     * @param eventId   of the event
+     * @param speakerId of the speaker
+     */
+    void unindexSpeaker(String eventId, String speakerId) {
+        removeFromIndex(speakerEvents, speakerId, eventId);
+    }
+
+    private static void addToIndex(ConcurrentMap<String, Set<String>> index, String userId, String eventId) {
+        if (userId != null) {
+            index.compute(userId, (id, events) -> {
+                Set<String> updated = events == null ? ConcurrentHashMap.newKeySet() : events;
+                updated.add(eventId);
+                return updated;
+            });
+        }
+    }
+
+    private static void removeFromIndex(ConcurrentMap<String, Set<String>> index, String userId, String eventId) {
+        if (userId != null) {
+            index.computeIfPresent(userId, (id, events) -> {
+                events.remove(eventId);
+                return events.isEmpty() ? null : events;
+            });
         }
-        return speakerEvents;
     }
 
 
@@ -121,12 +328,74 @@ public class EventsManager {
         return schedule;
     }
 
+    /**
+     * Get the number of events in the schedule.
+     *
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return eventPositions.size();
+    }
+
+    /**
+     * Get the id of an event by its position in the schedule, in the order events were added.
+     *
+     * @param index of the event, starting from 0
+     * @return the id of the event
+     */
+    public String getEventIdAt(int index) {
+        compactEventOrder();
+        return eventOrder.get(index);
+    }
+
+    /**
+     * Close up the holes removed events left in the order, so that positions count only the
+     * events still in the schedule.
+     */
+    private void compactEventOrder() {
+        if (removedCount == 0) {
+            return;
+        }
+        List<String> order = new ArrayList<>(eventPositions.size());
+        for (String eventId : eventOrder) {
+            if (eventId != null) {
+                eventPositions.put(eventId, order.size());
+                order.add(eventId);
+            }
+        }
+        eventOrder = order;
+        removedCount = 0;
+    }
+
+    /**
+     * A getter of the room and speaker bookings of the schedule, used to check conflicts.
+     *
+     * @return the ScheduleIndex of EventsManager
+     */
+    ScheduleIndex getScheduleIndex() {
+        return scheduleIndex;
+    }
+
     public void saveEventsToGateway(Gateway gateway) {
         List<Event> events = new ArrayList<>();
         events.addAll(this.schedule.values());
         gateway.saveEvents(events);
     }
 
+    /**
+     * Put an Event into the schedule, moving its attendees onto the dictionary of user ids shared
+     * by the events of this manager and the UsersManager.
+     *
+     * @param event to be put into the schedule
+     */
+    private void putEvent(Event event) {
+        event.shareAttendeeIds(this.userIds);
+        if (schedule.put(event.getId(), event) == null) {
+            eventPositions.put(event.getId(), eventOrder.size());
+            eventOrder.add(event.getId());
+        }
+    }
+
     /**
      * A loader to load events from gateway
      *
@@ -134,9 +403,21 @@ public class EventsManager {
      */
     public void loadEventsFromGateway(Gateway gateway) {
         this.schedule = new LinkedHashMap<>();
+        this.eventOrder = new ArrayList<>();
+        this.eventPositions = new HashMap<>();
+        this.removedCount = 0;
         List<Event> events = gateway.loadEvents();
         for (Event event: events) {
-            this.schedule.put(event.getId(), event);
+            putEvent(event);
+        }
+        this.scheduleIndex = new ScheduleIndex(this.schedule.values());
+        this.attendeeEvents = new ConcurrentHashMap<>();
+        this.speakerEvents = new ConcurrentHashMap<>();
+        for (Event event : this.schedule.values()) {
+            indexSpeaker(event.getId(), event.getSpeakerID());
+            for (String attendeeId : event.getAttendeesID()) {
+                indexAttendee(event.getId(), attendeeId);
+            }
         }
     }
 }
@@ -0,0 +1,104 @@
+package main.usecases;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An ImportReport tells how a bulk import of users went: how many rows became users, and why each
+ * other row was turned away. Only the first MAX_ERRORS rejected rows are kept in detail, so that a
+ * file full of bad rows cannot use up memory; the rest are only counted.
+ */
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private int imported = 0;
+    private int rejected = 0;
+    private final List<RowError> errors = new ArrayList<>();
+
+    /**
+     * A row that was turned away and the reason why.
+     */
+    public static class RowError {
+        private final long line;
+        private final String reason;
+
+        public RowError(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        /**
+         * Get the line of the file the row is on, counting from 1
+         *
+         * @return line
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Get the reason the row was turned away
+         *
+         * @return reason
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + line + ": " + reason;
+        }
+    }
+
+    /**
+     * Record that rows became users
+     *
+     * @param count number of rows
+     */
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    /**
+     * Record that a row was turned away
+     *
+     * @param line   of the row
+     * @param reason the row was turned away
+     */
+    public void addError(long line, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, reason));
+        }
+    }
+
+    /**
+     * Get the number of rows that became users
+     *
+     * @return imported
+     */
+    public int getImported() {
+        return imported;
+    }
+
+    /**
+     * Get the number of rows that were turned away
+     *
+     * @return rejected
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Get the first MAX_ERRORS rows that were turned away, in the order of the file
+     *
+     * @return errors
+     */
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+}
@@ -1,53 +1,301 @@
 package main.usecases;
 
+import main.entities.IdDictionary;
 import main.entities.Inbox;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
 
 public class InboxManager {
 
-    private final Map<String, Inbox> inboxes = new HashMap<>();
+    public static final int NOTIFICATION_BUFFER = 256;
+
+    private final Map<String, Inbox> inboxes = new ConcurrentHashMap<>();
+    private final Map<String, Notifications> notifications = new ConcurrentHashMap<>();
+    private final IdDictionary messageIds;
 
     public InboxManager() {
+        this(new IdDictionary());
+    }
 
+    /**
+     * Creates inboxes whose messages get their ints from the given dictionary, which has to be
+     * the one of the MessageManager that is searched for their messages.
+     *
+     * @param messageIds the dictionary of message ids
+     */
+    public InboxManager(IdDictionary messageIds) {
+        this.messageIds = messageIds;
     }
 
     public void createInboxForUser(String userId) {
-        Inbox newInbox = new Inbox(userId);
+        Inbox newInbox = new Inbox(userId, this.messageIds);
         this.inboxes.put(userId, newInbox);
     }
 
     public String getInboxUUIDFromUserUUID(String userId) {
+        Inbox box = this.inboxes.get(userId);
+        return box == null ? null : box.getId();
+    }
 
-        for (Inbox x : inboxes.values()) {
-            if (userId.equals(x.getUser())) {
-                return x.getId();
-            }
+    public List<String> getMessagesOfUser(String userId) {
+        Inbox box = this.inboxes.get(userId);
+        return box == null ? Collections.emptyList() : box.getMessages();
+    }
+
+    public int getMessageCountOfUser(String userId) {
+        Inbox box = this.inboxes.get(userId);
+        return box == null ? 0 : box.getMessageCount();
+    }
+
+    /**
+     * Get the messages of a user that are among the given matches, newest first.
+     *
+     * @param userId  of the user
+     * @param matches the ints of the messages to keep, as returned by MessageManager.searchMessages
+     * @param limit   the most messages to get
+     * @return the ids of the matching messages in the inbox of the user
+     */
+    public List<String> filterMessagesOfUser(String userId, BitSet matches, int limit) {
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
         }
-        return null;
+        //every match is in the inbox at most once, so the walk can stop once each one was seen
+        return filterMessagesOfUser(userId, matches::get, Math.min(limit, matches.cardinality()));
     }
 
-    public List<String> getMessagesOfUser(String userId) {
-        for (Inbox x : inboxes.values()) {
-            if (userId.equals(x.getUser())) {
-                return x.getMessages();
+    /**
+     * Get the messages of a user that pass a test, newest first. Only as many messages are read as
+     * it takes to find the limit.
+     *
+     * @param userId  of the user
+     * @param matches tells if a message, given by its int, is wanted
+     * @param limit   the most messages to get
+     * @return the ids of the matching messages in the inbox of the user
+     */
+    public List<String> filterMessagesOfUser(String userId, IntPredicate matches, int limit) {
+        Inbox box = this.inboxes.get(userId);
+        if (box == null) {
+            return Collections.emptyList();
+        }
+        List<String> found = new ArrayList<>();
+        for (int position = box.getMessageCount() - 1; position >= 0 && found.size() < limit; position--) {
+            if (matches.test(box.getMessageIndex(position))) {
+                found.add(box.getMessage(position));
             }
         }
-        return new LinkedList<>();
+        return found;
     }
 
-    public void putMessageInToInbox(String message, String receiver) {
+    public int getUnreadCountOfUser(String userId) {
+        Inbox box = this.inboxes.get(userId);
+        return box == null ? 0 : box.getUnreadCount();
+    }
 
-        Inbox box = this.inboxes.get(receiver);
+    /**
+     * Get the oldest unread messages of a user, oldest first, and mark them as read.
+     *
+     * @param userId of the user
+     * @param limit  the most messages to get
+     * @return the ids of the messages that were unread
+     */
+    public List<String> readUnreadMessagesOfUser(String userId, int limit) {
+        Inbox box = this.inboxes.get(userId);
         if (box == null) {
-            this.createInboxForUser(receiver);
-            this.putMessageInToInbox(message, receiver);
-            return;
+            return Collections.emptyList();
+        }
+        synchronized (box) {
+            List<String> unread = box.getUnreadMessages(limit);
+            box.markReadUpTo(box.getReadWatermark() + unread.size());
+            return unread;
+        }
+    }
+
+    /**
+     * Mark every message of a user before a position as read.
+     *
+     * @param userId   of the user
+     * @param position just after the newest message that was read
+     */
+    public void markMessagesOfUserRead(String userId, int position) {
+        Inbox box = this.inboxes.get(userId);
+        if (box != null) {
+            box.markReadUpTo(position);
+        }
+    }
+
+    /**
+     * Mark a page of the messages of a user that was shown as read, as long as no unread message
+     * comes before the page.
+     *
+     * @param userId of the user
+     * @param from   position of the oldest message on the page
+     * @param to     position just after the newest message on the page
+     */
+    public void markPageOfUserRead(String userId, int from, int to) {
+        Inbox box = this.inboxes.get(userId);
+        if (box != null) {
+            box.markPageRead(from, to);
+        }
+    }
+
+    /**
+     * Get a page of the messages of a user, newest first.
+     *
+     * @param userId of the user
+     * @param before position just after the newest message of the page, or the message count of
+     *               the user for the newest page
+     * @param limit  the most messages on the page
+     * @return the ids of the messages on the page
+     */
+    public List<String> getMessagesOfUserBefore(String userId, int before, int limit) {
+        Inbox box = this.inboxes.get(userId);
+        return box == null ? Collections.emptyList() : box.getMessagesBefore(before, limit);
+    }
+
+    public void putMessageInToInbox(String message, String sender, LocalDateTime sentAt, String receiver) {
+
+        Inbox box = this.inboxes.computeIfAbsent(receiver, id -> new Inbox(id, this.messageIds));
+        box.addMessage(message, sender, sentAt);
+        //offered while holding the entry, so the publisher can not be closed in the meantime
+        this.notifications.computeIfPresent(receiver, (id, userNotifications) -> {
+            //a subscriber that falls a whole buffer behind misses messages instead of holding up the sender
+            userNotifications.publisher.offer(message, (subscriber, dropped) -> false);
+            return userNotifications;
+        });
+    }
+
+    /**
+     * Get a publisher of the ids of the messages put into the inbox of a user from now on, in the
+     * order they arrive. Each subscriber has a buffer of NOTIFICATION_BUFFER ids that it has not
+     * requested yet; ids that do not fit are dropped for that subscriber, so a subscriber should
+     * compare the message count of the user with what it has seen to tell if it missed any.
+     * Once the last subscriber of a user cancels, the publisher behind it is closed and dropped.
+     *
+     * @param userId of the user
+     * @return the publisher of new message ids
+     */
+    public Flow.Publisher<String> getNotificationsOfUser(String userId) {
+        return subscriber -> this.notifications.compute(userId, (id, userNotifications) -> {
+            if (userNotifications == null) {
+                userNotifications = new Notifications();
+            }
+            userNotifications.subscribers++;
+            userNotifications.publisher.subscribe(new NotificationSubscriber(userId, subscriber));
+            return userNotifications;
+        });
+    }
+
+    /**
+     * Checks if anyone is subscribed to the new messages of a user
+     *
+     * @param userId of the user
+     * @return true iff the user has a notification publisher
+     */
+    public boolean hasNotificationsOfUser(String userId) {
+        return this.notifications.containsKey(userId);
+    }
+
+    private void releaseNotificationsOfUser(String userId) {
+        this.notifications.computeIfPresent(userId, (id, userNotifications) -> {
+            if (--userNotifications.subscribers > 0) {
+                return userNotifications;
+            }
+            userNotifications.publisher.close();
+            return null;
+        });
+    }
+
+    /**
+     * The publisher of a user and the number of its subscribers that have not cancelled yet. The
+     * publisher itself only forgets a cancelled subscriber some time later, so it is counted here.
+     * Both are only touched while holding the entry of the user.
+     */
+    private static class Notifications {
+        private final SubmissionPublisher<String> publisher =
+                new SubmissionPublisher<>(ForkJoinPool.commonPool(), NOTIFICATION_BUFFER);
+        private int subscribers = 0;
+    }
+
+    /**
+     * Passes notifications on to a subscriber, and releases the publisher of the user once the
+     * subscriber cancels.
+     */
+    private class NotificationSubscriber implements Flow.Subscriber<String> {
+        private final String userId;
+        private final Flow.Subscriber<? super String> subscriber;
+
+        private NotificationSubscriber(String userId, Flow.Subscriber<? super String> subscriber) {
+            this.userId = userId;
+            this.subscriber = subscriber;
         }
-        box.addMessage(message);
 
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            AtomicBoolean cancelled = new AtomicBoolean();
+            this.subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                    if (cancelled.compareAndSet(false, true)) {
+                        releaseNotificationsOfUser(userId);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onNext(String messageId) {
+            this.subscriber.onNext(messageId);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.subscriber.onComplete();
+        }
+    }
+
+    public void putMessageInToInboxes(String message, String sender, LocalDateTime sentAt,
+                                      Collection<String> receivers) {
+        for (String receiver : receivers) {
+            this.putMessageInToInbox(message, sender, sentAt, receiver);
+        }
+    }
+
+    /**
+     * Get the distinct senders of the messages of a user, most recent first.
+     *
+     * @param userId of the user
+     * @return the ids of the senders
+     */
+    public List<String> getSendersOfUser(String userId) {
+        Inbox box = this.inboxes.get(userId);
+        return box == null ? Collections.emptyList() : box.getSenders();
+    }
+
+    public LocalDateTime getLastMessageTime(String userId, String senderId) {
+        Inbox box = this.inboxes.get(userId);
+        return box == null ? null : box.getLastMessageTime(senderId);
     }
 }
@@ -0,0 +1,220 @@
+package main.usecases;
+
+import main.entities.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The MessageIndex maps every word of every message, and every sender, to the ints of the
+ * messages that contain it, so that messages can be found by keyword or sender without reading
+ * them all. Each posting list is kept in ascending order of message int.
+ * <p>
+ * An index is not safe to add to while it is being read or added to elsewhere. The MessageManager
+ * only touches its index while holding its own lock; broadcasts delivered in the background only
+ * write inboxes and never reach the index.
+ */
+public class MessageIndex {
+
+    private static final int MESSAGES_PER_PART = 4096;
+
+    private final Map<String, Postings> terms;
+    private final Map<String, Postings> senders;
+    private long postingCount;
+
+    /**
+     * The ints of the messages that contain one term, in ascending order.
+     */
+    private static class Postings {
+        private int[] ids = new int[2];
+        private int size = 0;
+
+        private boolean add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                if (ids[size - 1] == id) {
+                    return false;
+                }
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    return false;
+                }
+                insert(-at - 1, id);
+                return true;
+            }
+            insert(size, id);
+            return true;
+        }
+
+        private void insert(int at, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        private void addAll(Postings other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.ids[i]);
+            }
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    /**
+     * Creates an empty index
+     */
+    public MessageIndex() {
+        this.terms = new HashMap<>();
+        this.senders = new HashMap<>();
+    }
+
+    /**
+     * Creates an index of the given messages, splitting the work across all cores.
+     *
+     * @param messages by their int, where null entries are skipped
+     * @return the index of the messages
+     */
+    public static MessageIndex build(Message[] messages) {
+        int parts = (messages.length + MESSAGES_PER_PART - 1) / MESSAGES_PER_PART;
+        List<MessageIndex> partIndexes = IntStream.range(0, parts).parallel()
+                .mapToObj(part -> {
+                    MessageIndex partIndex = new MessageIndex();
+                    int end = Math.min(messages.length, (part + 1) * MESSAGES_PER_PART);
+                    for (int id = part * MESSAGES_PER_PART; id < end; id++) {
+                        if (messages[id] != null) {
+                            partIndex.add(id, messages[id]);
+                        }
+                    }
+                    return partIndex;
+                })
+                .collect(Collectors.toList());
+        MessageIndex index = new MessageIndex();
+        //parts hold ascending, disjoint ranges of ints, so merging them in order keeps each list sorted
+        for (MessageIndex partIndex : partIndexes) {
+            merge(index.terms, partIndex.terms);
+            merge(index.senders, partIndex.senders);
+            index.postingCount += partIndex.postingCount;
+        }
+        return index;
+    }
+
+    private static void merge(Map<String, Postings> into, Map<String, Postings> from) {
+        for (Map.Entry<String, Postings> entry : from.entrySet()) {
+            Postings postings = into.get(entry.getKey());
+            if (postings == null) {
+                into.put(entry.getKey(), entry.getValue());
+            } else {
+                postings.addAll(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Add a message to the index
+     *
+     * @param id      the int of the message in the message IdDictionary
+     * @param message to be indexed
+     */
+    public void add(int id, Message message) {
+        for (String term : tokenize(message.getText())) {
+            if (terms.computeIfAbsent(term, t -> new Postings()).add(id)) {
+                postingCount++;
+            }
+        }
+        if (message.getSender() != null && senders.computeIfAbsent(message.getSender(), s -> new Postings()).add(id)) {
+            postingCount++;
+        }
+    }
+
+    /**
+     * Get the number of message ints held across all posting lists.
+     *
+     * @return the number of postings
+     */
+    public long getPostingCount() {
+        return postingCount;
+    }
+
+    /**
+     * Find the messages that contain every word of the keywords and were sent by the sender.
+     *
+     * @param keywords to look for, or null or blank to match any text
+     * @param sender   the id of the sender, or null to match any sender
+     * @return the ints of the matching messages in ascending order, or null if neither keywords
+     * nor a sender were given
+     */
+    public int[] search(String keywords, String sender) {
+        List<Postings> lists = new ArrayList<>();
+        for (String term : tokenize(keywords)) {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        if (sender != null) {
+            Postings postings = senders.get(sender);
+            if (postings == null) {
+                return new int[0];
+            }
+            lists.add(postings);
+        }
+        if (lists.isEmpty()) {
+            return null;
+        }
+        lists.sort((a, b) -> a.size - b.size);
+        int[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] ids, Postings postings) {
+        int[] result = new int[ids.length];
+        int size = 0;
+        int from = 0;
+        for (int id : ids) {
+            int at = Arrays.binarySearch(postings.ids, from, postings.size, id);
+            if (at >= 0) {
+                result[size++] = id;
+                from = at + 1;
+            } else {
+                from = -at - 1;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Split text into lower case words.
+     *
+     * @param text to split
+     * @return the distinct words of the text
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -1,31 +1,99 @@
 package main.usecases;
 
+import main.entities.IdDictionary;
 import main.entities.Message;
 import main.gateways.Gateway;
+import main.gateways.MappedMessageFile;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 
 /**
  * <code>MessageManager</code> stores all the messages and assigns an ID to
- * each <code>Message</code>
+ * each <code>Message</code>. Messages are kept in an array indexed by the int
+ * of their ID in the message <code>IdDictionary</code> of this manager, which
+ * it shares with the inboxes that hold the same messages.
+ * <p>
+ * Storage is split in two tiers. Recent messages stay on the heap; once the
+ * estimated size of those messages goes over the heap budget, the oldest ones
+ * are moved to a <code>MappedMessageFile</code> and read back from it when
+ * asked for. Every message also leaves some bookkeeping on the heap that is
+ * not moved: its entry in the message <code>IdDictionary</code>, its slots in
+ * the arrays of this manager and its postings in the search index. That part
+ * counts against the budget too, so only what is left of the budget is spent
+ * on keeping messages hot.
+ * <p>
+ * Every public method that touches the messages is synchronized, since
+ * creating, loading and evicting messages replace the arrays and the cold
+ * file that the readers go through.
  *
  * @author Steven Yuan, David Zhao
- * @version 2.0
+ * @version 3.0
  * @since 2020-11-03
  */
 public class MessageManager {
 
-    private Map<String, Message> messageList;
+    public static final long DEFAULT_HEAP_BUDGET = 64L * 1024 * 1024;
+
+    // Message object (32), its LocalDateTime with its LocalDate and LocalTime (3 * 24), and the
+    // String objects and byte arrays of its text and sender (2 * (24 + 16)); the id is counted
+    // with the dictionary entry, which keeps it after the message goes cold
+    private static final long MESSAGE_BYTES = 184;
+    // ConcurrentHashMap node (32), boxed Integer (16), slot in the id array (8) and the String
+    // object and byte array of the id (24 + 16)
+    private static final long DICTIONARY_ENTRY_BYTES = 96;
+    // a Message reference and a cold locator
+    private static final long SLOT_BYTES = 16;
+    // an int in a posting list, which grows by doubling
+    private static final long POSTING_BYTES = 8;
+
+    private Message[] messageList;
+    private long[] coldLocators;
+    private int messageCount;
+    private MessageIndex searchIndex;
+    private Gateway messageLog;
+    private final IdDictionary messageIds;
+    private final long heapBudget;
+    private long hotBytes;
+    private long dictionaryBytes;
+    private int coldCount;
+    private int nextToEvict;
+    private MappedMessageFile coldFile;
 
     /**
      * Default constructor that instantiates a <code>MessageManager</code> object
+     * that keeps every message on the heap
      */
     public MessageManager() {
-        this.messageList = new HashMap<>();
+        this(new IdDictionary(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructor that instantiates a <code>MessageManager</code> object that
+     * moves its oldest messages off the heap when the rest go over the budget
+     *
+     * @param heapBudget the estimated size in bytes of the messages kept on the heap
+     */
+    public MessageManager(long heapBudget) {
+        this(new IdDictionary(), heapBudget);
+    }
+
+    /**
+     * Constructor that instantiates a <code>MessageManager</code> object that
+     * gives its messages ints in the given dictionary and moves its oldest
+     * messages off the heap when the rest go over the budget
+     *
+     * @param messageIds the dictionary of message ids
+     * @param heapBudget the estimated size in bytes of the messages kept on the heap
+     */
+    public MessageManager(IdDictionary messageIds, long heapBudget) {
+        this.messageIds = messageIds;
+        this.heapBudget = heapBudget;
+        this.clear();
     }
 
     /**
@@ -35,11 +103,14 @@ public class MessageManager {
      * @param sender The sender of the message
      * @return String The ID of the message created
      */
-    public String createMessage(String text, String sender) {
+    public synchronized String createMessage(String text, String sender) {
         Message newMessage = new Message(text, sender);
-        String newMessageId = newMessage.getId();
-        this.messageList.put(newMessageId, newMessage);
-        return newMessageId;
+        this.searchIndex.add(this.putMessage(newMessage), newMessage);
+        if (this.messageLog != null) {
+            this.messageLog.appendMessage(newMessage);
+        }
+        this.evictOverBudget();
+        return newMessage.getId();
     }
 
     /**
@@ -48,8 +119,8 @@ public class MessageManager {
      * @param messageId ID of the message retrieved
      * @return The content of the message
      */
-    public String retrieveMessageText(String messageId) {
-        Message message = this.messageList.get(messageId);
+    public synchronized String retrieveMessageText(String messageId) {
+        Message message = this.getMessage(messageId);
         return message.getText();
     }
 
@@ -59,8 +130,8 @@ public class MessageManager {
      * @param messageId ID of the message retrieved
      * @return date of the message
      */
-    public LocalDateTime retrieveMessageDate(String messageId) {
-        Message message = this.messageList.get(messageId);
+    public synchronized LocalDateTime retrieveMessageDate(String messageId) {
+        Message message = this.getMessage(messageId);
         return message.getDate();
     }
 
@@ -70,33 +141,229 @@ public class MessageManager {
      * @param messageId ID of the message retrieved
      * @return the ID of the sender
      */
-    public String retrieveMessageSender(String messageId) {
-        Message message = this.messageList.get(messageId);
+    public synchronized String retrieveMessageSender(String messageId) {
+        Message message = this.getMessage(messageId);
         return message.getSender();
     }
 
     /**
-     * Saves current store of Message to gateway
+     * Saves current store of Message to gateway. If the messages were loaded from the same
+     * gateway, every message created since has already been appended to its message log, so
+     * only the log is flushed.
      *
      * @param gateway An implementation of the Gateway interface
      */
-    public void saveMessagesToGateway(Gateway gateway) {
-        List<Message> messages = new ArrayList<>();
-        messages.addAll(this.messageList.values());
+    public synchronized void saveMessagesToGateway(Gateway gateway) {
+        if (gateway == this.messageLog) {
+            gateway.flushMessages();
+            return;
+        }
+        List<Message> messages = new ArrayList<>(this.messageCount);
+        for (int index = 0; index < this.messageList.length; index++) {
+            Message message = this.messageAt(index);
+            if (message != null) {
+                messages.add(message);
+            }
+        }
         gateway.saveMessages(messages);
     }
 
     /**
-     * Imports and replaces current store of Message with Gateway-provided store
+     * Imports and replaces current store of Message with Gateway-provided store. Messages
+     * created afterwards are appended to the message log of the gateway as they are created.
      *
      * @param gateway An implementation of the Gateway interface
      */
-    public void loadMessagesFromGateway(Gateway gateway) {
-        this.messageList = new HashMap<>();
+    public synchronized void loadMessagesFromGateway(Gateway gateway) {
+        this.clear();
         List<Message> messages = gateway.loadMessages();
         for (Message message : messages) {
-            this.messageList.put(message.getId(), message);
+            this.putMessage(message);
+        }
+        this.searchIndex = MessageIndex.build(this.messageList);
+        this.messageLog = gateway;
+        this.evictOverBudget();
+    }
+
+    /**
+     * Get the dictionary that gives the messages of this manager their ints
+     *
+     * @return the message <code>IdDictionary</code>
+     */
+    public IdDictionary getMessageIds() {
+        return this.messageIds;
+    }
+
+    /**
+     * Get the estimated size of the messages kept on the heap
+     *
+     * @return the estimated size in bytes
+     */
+    public synchronized long getHotBytes() {
+        return this.hotBytes;
+    }
+
+    /**
+     * Get the estimated size of the bookkeeping every message leaves on the heap, hot or cold
+     *
+     * @return the estimated size in bytes
+     */
+    public synchronized long getResidentBytes() {
+        return this.dictionaryBytes + this.messageList.length * SLOT_BYTES
+                + this.searchIndex.getPostingCount() * POSTING_BYTES;
+    }
+
+    /**
+     * Get the number of messages that were moved off the heap
+     *
+     * @return the number of cold messages
+     */
+    public synchronized int getColdCount() {
+        return this.coldCount;
+    }
+
+    /**
+     * Find the messages that contain every word of the keywords, were sent by the sender and were
+     * sent within the date range. Any of the conditions can be left out.
+     *
+     * @param keywords to look for, or null or blank to match any text
+     * @param sender   ID of the sender, or null to match any sender
+     * @param from     the earliest date, or null for no earliest date
+     * @param to       the latest date, or null for no latest date
+     * @return the ints of the matching messages in the message <code>IdDictionary</code>
+     */
+    public synchronized BitSet searchMessages(String keywords, String sender, LocalDateTime from, LocalDateTime to) {
+        BitSet matches = new BitSet();
+        int[] candidates = this.searchIndex.search(keywords, sender);
+        if (candidates == null) {
+            for (int index = 0; index < this.messageList.length; index++) {
+                Message message = this.messageAt(index);
+                if (message != null && isWithin(message, from, to)) {
+                    matches.set(index);
+                }
+            }
+            return matches;
+        }
+        for (int index : candidates) {
+            if (isWithin(this.messageAt(index), from, to)) {
+                matches.set(index);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks if a message was sent by the sender within the date range, without going through
+     * the search index. Any of the conditions can be left out.
+     *
+     * @param index  the int of the message in the message <code>IdDictionary</code>
+     * @param sender ID of the sender, or null to match any sender
+     * @param from   the earliest date, or null for no earliest date
+     * @param to     the latest date, or null for no latest date
+     * @return true iff the message exists and matches
+     */
+    public synchronized boolean matchesAt(int index, String sender, LocalDateTime from, LocalDateTime to) {
+        Message message = index < 0 || index >= this.messageList.length ? null : this.messageAt(index);
+        return message != null && (sender == null || sender.equals(message.getSender()))
+                && isWithin(message, from, to);
+    }
+
+    private static boolean isWithin(Message message, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime date = message.getDate();
+        return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+
+    private void clear() {
+        this.messageList = new Message[16];
+        this.coldLocators = new long[16];
+        Arrays.fill(this.coldLocators, -1);
+        this.messageCount = 0;
+        this.hotBytes = 0;
+        this.dictionaryBytes = 0;
+        this.coldCount = 0;
+        this.nextToEvict = 0;
+        this.searchIndex = new MessageIndex();
+        if (this.coldFile != null) {
+            try {
+                this.coldFile.close();
+            } catch (IOException e) {
+                // the file only held a copy of messages that are being dropped
+            }
+            this.coldFile = null;
+        }
+    }
+
+    private int putMessage(Message message) {
+        int index = this.messageIds.indexOf(message.getId());
+        if (index >= this.messageList.length) {
+            int length = Math.max(index + 1, this.messageList.length * 2);
+            this.messageList = Arrays.copyOf(this.messageList, length);
+            int oldLength = this.coldLocators.length;
+            this.coldLocators = Arrays.copyOf(this.coldLocators, length);
+            Arrays.fill(this.coldLocators, oldLength, length, -1);
+        }
+        if (this.messageList[index] == null && this.coldLocators[index] < 0) {
+            this.messageCount++;
+            this.dictionaryBytes += DICTIONARY_ENTRY_BYTES + length(message.getId());
+        }
+        if (this.messageList[index] != null) {
+            this.hotBytes -= estimateSize(this.messageList[index]);
+        }
+        if (this.coldLocators[index] >= 0) {
+            this.coldCount--;
+        }
+        this.messageList[index] = message;
+        this.coldLocators[index] = -1;
+        this.hotBytes += estimateSize(message);
+        this.nextToEvict = Math.min(this.nextToEvict, index);
+        return index;
+    }
+
+    private Message getMessage(String messageId) {
+        int index = this.messageIds.lookup(messageId);
+        return index < 0 || index >= this.messageList.length ? null : this.messageAt(index);
+    }
+
+    private Message messageAt(int index) {
+        Message message = this.messageList[index];
+        if (message == null && this.coldLocators[index] >= 0) {
+            message = this.coldFile.read(this.coldLocators[index]);
         }
+        return message;
+    }
+
+    /**
+     * Move the oldest messages on the heap to the cold file until the rest, along with the
+     * bookkeeping that stays on the heap, fit the budget. If the cold file cannot be written, the
+     * messages stay on the heap.
+     */
+    private void evictOverBudget() {
+        long hotBudget = this.heapBudget - this.getResidentBytes();
+        while (this.hotBytes > hotBudget && this.nextToEvict < this.messageList.length) {
+            Message message = this.messageList[this.nextToEvict];
+            if (message != null) {
+                try {
+                    if (this.coldFile == null) {
+                        this.coldFile = MappedMessageFile.createTemp();
+                    }
+                    this.coldLocators[this.nextToEvict] = this.coldFile.write(message);
+                } catch (IOException e) {
+                    return;
+                }
+                this.messageList[this.nextToEvict] = null;
+                this.hotBytes -= estimateSize(message);
+                this.coldCount++;
+            }
+            this.nextToEvict++;
+        }
+    }
+
+    private static long estimateSize(Message message) {
+        return MESSAGE_BYTES + length(message.getSender()) + length(message.getText());
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
     }
 
 
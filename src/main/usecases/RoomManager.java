@@ -68,6 +68,16 @@ public class RoomManager {
         return target;
     }
 
+    /**
+     * the method will return the room object given its id
+     *
+     * @param roomId the id of the room
+     * @return the room object of the room, if there doesn't exist a room with given id, return null.
+     */
+    public Room getRoomGivenId(String roomId) {
+        return rooms.get(roomId);
+    }
+
     /**
      * give the schedule of a room given its roomNum
      *
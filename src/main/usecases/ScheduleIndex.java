@@ -0,0 +1,126 @@
+package main.usecases;
+
+import main.entities.Event;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The ScheduleIndex records which rooms and speakers are booked at each time slot, so that
+ * conflicts can be checked without scanning the whole schedule.
+ */
+public class ScheduleIndex {
+
+    private final NavigableMap<LocalDateTime, Map<String, String>> roomBookings = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, Map<String, String>> speakerBookings = new TreeMap<>();
+
+    /**
+     * Creates an empty index
+     */
+    public ScheduleIndex() {
+    }
+
+    /**
+     * Creates an index holding the bookings of the given events
+     *
+     * @param events to be indexed
+     */
+    public ScheduleIndex(Collection<Event> events) {
+        for (Event event : events) {
+            addEvent(event);
+        }
+    }
+
+    /**
+     * Record the room and speaker bookings of an event
+     *
+     * @param event to be added
+     */
+    public void addEvent(Event event) {
+        book(roomBookings, event.getTime(), event.getRoomID(), event.getId());
+        book(speakerBookings, event.getTime(), event.getSpeakerID(), event.getId());
+    }
+
+    /**
+     * Release the room and speaker bookings of an event. Bookings held by other events are untouched.
+     *
+     * @param event to be removed
+     */
+    public void removeEvent(Event event) {
+        release(roomBookings, event.getTime(), event.getRoomID(), event.getId());
+        release(speakerBookings, event.getTime(), event.getSpeakerID(), event.getId());
+    }
+
+    /**
+     * Check if the room is booked at the given time by an event other than the given one
+     *
+     * @param time    of the booking
+     * @param roomId  to be checked
+     * @param eventId of the event asking, which never conflicts with itself
+     * @return true iff another event holds the room at that time
+     */
+    public boolean isRoomBooked(LocalDateTime time, String roomId, String eventId) {
+        return isBooked(roomBookings, time, roomId, eventId);
+    }
+
+    /**
+     * Check if the speaker is booked at the given time by an event other than the given one
+     *
+     * @param time      of the booking
+     * @param speakerId to be checked
+     * @param eventId   of the event asking, which never conflicts with itself
+     * @return true iff another event holds the speaker at that time
+     */
+    public boolean isSpeakerBooked(LocalDateTime time, String speakerId, String eventId) {
+        return isBooked(speakerBookings, time, speakerId, eventId);
+    }
+
+    /**
+     * Check if an event at the given time, room and speaker would clash with the indexed events
+     *
+     * @param eventId   of the event asking, which never conflicts with itself
+     * @param time      of the event
+     * @param roomId    of the event
+     * @param speakerId of the event
+     * @return true iff the room or the speaker is already booked at that time
+     */
+    public boolean hasConflict(String eventId, LocalDateTime time, String roomId, String speakerId) {
+        return isRoomBooked(time, roomId, eventId) || isSpeakerBooked(time, speakerId, eventId);
+    }
+
+    private static void book(Map<LocalDateTime, Map<String, String>> bookings, LocalDateTime time,
+                             String key, String eventId) {
+        if (time == null || key == null) {
+            return;
+        }
+        bookings.computeIfAbsent(time, t -> new HashMap<>()).put(key, eventId);
+    }
+
+    private static void release(Map<LocalDateTime, Map<String, String>> bookings, LocalDateTime time,
+                                String key, String eventId) {
+        if (time == null || key == null) {
+            return;
+        }
+        Map<String, String> slot = bookings.get(time);
+        if (slot != null && slot.remove(key, eventId) && slot.isEmpty()) {
+            bookings.remove(time);
+        }
+    }
+
+    private static boolean isBooked(Map<LocalDateTime, Map<String, String>> bookings, LocalDateTime time,
+                                    String key, String eventId) {
+        if (time == null || key == null) {
+            return false;
+        }
+        Map<String, String> slot = bookings.get(time);
+        if (slot == null) {
+            return false;
+        }
+        String holder = slot.get(key);
+        return holder != null && !holder.equals(eventId);
+    }
+}
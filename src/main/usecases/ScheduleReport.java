@@ -0,0 +1,96 @@
+package main.usecases;
+
+/**
+ * The ScheduleReport records, for every event in a bulk schedule request, whether it was
+ * accepted and why it was rejected otherwise.
+ */
+public class ScheduleReport {
+
+    public static final String OUTSIDE_HOURS = "outside of conference hours";
+    public static final String MISSING_TIME = "no time given";
+    public static final String ROOM_CONFLICT = "room is already booked at that time";
+    public static final String SPEAKER_CONFLICT = "speaker is already booked at that time";
+
+    private final String[] eventIds;
+    private final String[] reasons;
+    private int acceptedCount = 0;
+
+    /**
+     * Class constructor
+     *
+     * @param size number of events in the request
+     */
+    public ScheduleReport(int size) {
+        this.eventIds = new String[size];
+        this.reasons = new String[size];
+    }
+
+    /**
+     * Mark an event of the request as scheduled
+     *
+     * @param index   of the event in the request
+     * @param eventId of the scheduled event
+     */
+    void accept(int index, String eventId) {
+        eventIds[index] = eventId;
+        acceptedCount++;
+    }
+
+    /**
+     * Mark an event of the request as rejected
+     *
+     * @param index  of the event in the request
+     * @param reason why it was rejected
+     */
+    void reject(int index, String reason) {
+        reasons[index] = reason;
+    }
+
+    /**
+     * Get the number of events in the request
+     *
+     * @return size
+     */
+    public int size() {
+        return eventIds.length;
+    }
+
+    /**
+     * Get the number of events that were scheduled
+     *
+     * @return acceptedCount
+     */
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /**
+     * Check if an event of the request was scheduled
+     *
+     * @param index of the event in the request
+     * @return true iff the event was scheduled
+     */
+    public boolean isAccepted(int index) {
+        return eventIds[index] != null;
+    }
+
+    /**
+     * Get the id of a scheduled event
+     *
+     * @param index of the event in the request
+     * @return the event id, or null if the event was rejected
+     */
+    public String getEventId(int index) {
+        return eventIds[index];
+    }
+
+    /**
+     * Get the reason an event was rejected
+     *
+     * @param index of the event in the request
+     * @return the reason, or null if the event was scheduled
+     */
+    public String getReason(int index) {
+        return reasons[index];
+    }
+}
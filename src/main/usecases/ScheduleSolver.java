@@ -0,0 +1,270 @@
+package main.usecases;
+
+import main.entities.Room;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The ScheduleSolver picks a time and a room for events that only have a title and a speaker, so
+ * that no room and no speaker is booked twice at the same time, including against events that are
+ * already scheduled.
+ *
+ * Every hour between 9 and 17 of the given days is a slot that can hold as many events as it has
+ * free rooms, and the events of one speaker must all go to different slots. Speakers with the most
+ * events are placed first, each event into the least used slot that is still open to it. If that
+ * does not place as many events as could possibly fit, randomized restarts run on all cores until
+ * one does or the time budget runs out, and the best assignment found is kept. When not every
+ * event can fit, for instance because a speaker has more events than there are slots, the search
+ * only aims for as many as can.
+ */
+public class ScheduleSolver {
+
+    private final EventsManager eventsManager;
+    private final RoomManager roomManager;
+
+    /**
+     * Class constructor
+     *
+     * @param eventsManager holding the events already scheduled
+     * @param roomManager   holding the rooms that can be assigned
+     */
+    public ScheduleSolver(EventsManager eventsManager, RoomManager roomManager) {
+        this.eventsManager = eventsManager;
+        this.roomManager = roomManager;
+    }
+
+    /**
+     * Set a time and a room on as many of the given events as possible.
+     *
+     * @param drafts           of the events, each with a title and speaker
+     * @param firstDay         of the conference
+     * @param days             number of days the events can be spread over
+     * @param timeBudgetMillis how long to keep searching if not every event fits right away
+     * @return the number of events that were given a time and room
+     */
+    public int solve(List<EventBuilder> drafts, LocalDate firstDay, int days, long timeBudgetMillis) {
+        Problem problem = new Problem(drafts, firstDay, days);
+        int[] best = problem.attempt(null);
+        int target = problem.mostPlaceable();
+        if (countAssigned(best) < target && timeBudgetMillis > 0) {
+            best = searchInParallel(problem, best, target, System.currentTimeMillis() + timeBudgetMillis);
+        }
+        return problem.apply(best);
+    }
+
+    private int[] searchInParallel(Problem problem, int[] initial, int target, long deadline) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                long seed = w + 1;
+                results.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    int[] workerBest = null;
+                    while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted()) {
+                        int[] candidate = problem.attempt(random);
+                        if (workerBest == null || countAssigned(candidate) > countAssigned(workerBest)) {
+                            workerBest = candidate;
+                            if (countAssigned(workerBest) == target) {
+                                break;
+                            }
+                        }
+                    }
+                    return workerBest;
+                }));
+            }
+            int[] best = initial;
+            for (Future<int[]> result : results) {
+                int[] candidate = result.get();
+                if (candidate != null && countAssigned(candidate) > countAssigned(best)) {
+                    best = candidate;
+                }
+            }
+            return best;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return initial;
+        } catch (ExecutionException e) {
+            return initial;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int countAssigned(int[] assignment) {
+        int count = 0;
+        for (int slot : assignment) {
+            if (slot >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The slots, free rooms and speaker groups of one call to solve. Attempts only read it, so
+     * several can run at the same time.
+     */
+    private class Problem {
+        private final List<EventBuilder> drafts;
+        private final LocalDateTime[] slotTimes;
+        private final String[][] freeRooms;
+        private final int[][] groups;
+        private final boolean[][] groupBusy;
+
+        private Problem(List<EventBuilder> drafts, LocalDate firstDay, int days) {
+            this.drafts = drafts;
+            ScheduleIndex scheduleIndex = eventsManager.getScheduleIndex();
+            int hours = 17 - 9 + 1;
+            slotTimes = new LocalDateTime[days * hours];
+            freeRooms = new String[slotTimes.length][];
+            for (int t = 0; t < slotTimes.length; t++) {
+                slotTimes[t] = firstDay.plusDays(t / hours).atTime(9 + t % hours, 0);
+                List<String> rooms = new ArrayList<>();
+                for (Room room : roomManager.getAllRoomsObject()) {
+                    if (!scheduleIndex.isRoomBooked(slotTimes[t], room.getId(), null)) {
+                        rooms.add(room.getId());
+                    }
+                }
+                freeRooms[t] = rooms.toArray(new String[0]);
+            }
+
+            Map<String, List<Integer>> bySpeaker = new LinkedHashMap<>();
+            List<int[]> groupList = new ArrayList<>();
+            for (int i = 0; i < drafts.size(); i++) {
+                String speaker = drafts.get(i).getSpeaker();
+                if (speaker == null) {
+                    groupList.add(new int[]{i});
+                } else {
+                    bySpeaker.computeIfAbsent(speaker, s -> new ArrayList<>()).add(i);
+                }
+            }
+            for (List<Integer> events : bySpeaker.values()) {
+                groupList.add(events.stream().mapToInt(Integer::intValue).toArray());
+            }
+            groupList.sort((a, b) -> b.length - a.length);
+            groups = groupList.toArray(new int[0][]);
+
+            groupBusy = new boolean[groups.length][slotTimes.length];
+            for (int g = 0; g < groups.length; g++) {
+                String speaker = drafts.get(groups[g][0]).getSpeaker();
+                for (int t = 0; t < slotTimes.length; t++) {
+                    groupBusy[g][t] = scheduleIndex.isSpeakerBooked(slotTimes[t], speaker, null);
+                }
+            }
+        }
+
+        /**
+         * An upper bound on the number of events any assignment can place: each speaker can fill
+         * at most the open slots it is free in, and all of them together at most the free rooms.
+         *
+         * @return the most events that could be placed
+         */
+        private int mostPlaceable() {
+            int rooms = 0;
+            for (String[] slotRooms : freeRooms) {
+                rooms += slotRooms.length;
+            }
+            int placeable = 0;
+            for (int g = 0; g < groups.length; g++) {
+                int open = 0;
+                for (int t = 0; t < slotTimes.length; t++) {
+                    if (!groupBusy[g][t] && freeRooms[t].length > 0) {
+                        open++;
+                    }
+                }
+                placeable += Math.min(groups[g].length, open);
+            }
+            return Math.min(placeable, rooms);
+        }
+
+        /**
+         * Place the events one speaker at a time, largest speakers first.
+         *
+         * @param random to break ties and shuffle speakers of the same size, or null for a plain pass
+         * @return the slot of every event, or -1 for events that could not be placed
+         */
+        private int[] attempt(Random random) {
+            int[] assignment = new int[drafts.size()];
+            Arrays.fill(assignment, -1);
+            int[] used = new int[slotTimes.length];
+            for (int g : groupOrder(random)) {
+                boolean[] taken = groupBusy[g].clone();
+                for (int event : groups[g]) {
+                    int slot = pickSlot(used, taken, random);
+                    if (slot >= 0) {
+                        assignment[event] = slot;
+                        taken[slot] = true;
+                        used[slot]++;
+                    }
+                }
+            }
+            return assignment;
+        }
+
+        private List<Integer> groupOrder(Random random) {
+            List<Integer> order = new ArrayList<>();
+            for (int g = 0; g < groups.length; g++) {
+                order.add(g);
+            }
+            if (random != null) {
+                Collections.shuffle(order, random);
+                order.sort((a, b) -> groups[b].length - groups[a].length);
+            }
+            return order;
+        }
+
+        private int pickSlot(int[] used, boolean[] taken, Random random) {
+            int best = -1;
+            int bestRemaining = 0;
+            int ties = 0;
+            for (int t = 0; t < slotTimes.length; t++) {
+                int remaining = freeRooms[t].length - used[t];
+                if (taken[t] || remaining <= 0) {
+                    continue;
+                }
+                if (remaining > bestRemaining) {
+                    best = t;
+                    bestRemaining = remaining;
+                    ties = 1;
+                } else if (remaining == bestRemaining && random != null && random.nextInt(++ties) == 0) {
+                    best = t;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Write an assignment back into the drafts. Rooms are handed out per slot in a fixed order.
+         *
+         * @param assignment the slot of every event
+         * @return the number of events that were given a time and room
+         */
+        private int apply(int[] assignment) {
+            int[] used = new int[slotTimes.length];
+            int assigned = 0;
+            for (int i = 0; i < assignment.length; i++) {
+                int slot = assignment[i];
+                if (slot >= 0) {
+                    drafts.get(i).setTime(slotTimes[slot]);
+                    drafts.get(i).setRoom(freeRooms[slot][used[slot]++]);
+                    assigned++;
+                }
+            }
+            return assigned;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package main.usecases;
+
+import main.entities.Session;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * The SessionManager holds the sessions of every logged in user by their token. Any number of
+ * sessions can be open at once, and looking one up never locks. A session that has not been used
+ * for the idle timeout expires: it is dropped when it is next looked up, and every so often all
+ * idle sessions are swept out when new ones are opened. A session can also be opened to never
+ * expire, for a user who is sitting at the console.
+ */
+public class SessionManager {
+
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private static final int TOKEN_BYTES = 24;
+    private static final int OPENS_PER_SWEEP = 1024;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicInteger opensSinceSweep = new AtomicInteger();
+    private final long idleTimeout;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a session table with the default idle timeout
+     */
+    public SessionManager() {
+        this(DEFAULT_IDLE_TIMEOUT, System::currentTimeMillis);
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param idleTimeout how long a session can go unused before it expires
+     * @param clock       that gives the current time in milliseconds
+     */
+    public SessionManager(Duration idleTimeout, LongSupplier clock) {
+        this.idleTimeout = idleTimeout.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Open a new session for a user.
+     *
+     * @param userId of the user who logged in
+     * @return the token of the new session
+     */
+    public String openSession(String userId) {
+        return openSession(userId, true);
+    }
+
+    /**
+     * Open a new session for a user.
+     *
+     * @param userId     of the user who logged in
+     * @param expireIdle whether the session expires after the idle timeout
+     * @return the token of the new session
+     */
+    public String openSession(String userId, boolean expireIdle) {
+        if (opensSinceSweep.incrementAndGet() >= OPENS_PER_SWEEP) {
+            opensSinceSweep.set(0);
+            expireIdleSessions();
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(token, userId, clock.getAsLong(), expireIdle));
+        return token;
+    }
+
+    /**
+     * Get an open session and record that it was used.
+     *
+     * @param token of the session
+     * @return the session, or null if there is no such session or it has expired
+     */
+    public Session getSession(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (isIdle(session, now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * Close a session.
+     *
+     * @param token of the session
+     * @return true iff the session was open
+     */
+    public boolean closeSession(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Drop every session that has been idle for longer than the idle timeout.
+     *
+     * @return the number of sessions dropped
+     */
+    public int expireIdleSessions() {
+        long now = clock.getAsLong();
+        int expired = 0;
+        Iterator<Session> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            if (isIdle(iterator.next(), now)) {
+                iterator.remove();
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Get the number of sessions in the table, some of which may have expired but not been dropped
+     * yet.
+     *
+     * @return the number of sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private boolean isIdle(Session session, long now) {
+        return session.expiresWhenIdle() && now - session.getLastAccess() > idleTimeout;
+    }
+}
@@ -1,49 +1,89 @@
 package main.usecases;
 
+import main.entities.IdDictionary;
+import main.entities.IdSet;
+import main.entities.Role;
 import main.entities.User;
 import main.gateways.Gateway;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The UsersManager holds a list of users and modifies info for ...
  *
+ * Users are changed by one thread at a time, while any number of threads can read them at once
+ * without locking. Every change bumps a version, and the list of all users is an immutable
+ * snapshot that is copied at most once per version, the first time it is asked for.
+ *
  * @author Leyi(Amanda) Wang, David Zhao
  * @version 1.0
  * @since 2020-11-02
  */
 
 public class UsersManager {
-    private Map<String, User> registeredUsers;
+    private final Map<String, User> registeredUsers = new ConcurrentHashMap<>();
+    private final Map<String, String> usernameToUUID = new ConcurrentHashMap<>();
+    private final IdDictionary userIds;
+    private final Map<Role, IdSet> usersByRole = new EnumMap<>(Role.class);
+    private final NavigableMap<String, String> sortedUsernames = new ConcurrentSkipListMap<>();
+    private final Map<Role, NavigableMap<String, String>> sortedUsernamesByRole = new EnumMap<>(Role.class);
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * The ids of all users as of one version.
+     */
+    private static class Snapshot {
+        private final long version;
+        private final List<String> users;
+
+        private Snapshot(long version, List<String> users) {
+            this.version = version;
+            this.users = users;
+        }
+    }
 
     public UsersManager() {
-        registeredUsers = new HashMap<>();
+        this(new IdDictionary());
     }
 
-    public UsersManager(List<User> userList) {
-        registeredUsers = new HashMap<>();
-        for (User user : userList) {
-            registeredUsers.put(user.getId(), user);
-        }
+    /**
+     * Creates an empty UsersManager whose users get their ints from the given dictionary, so that
+     * a user has the same int here as in the EventsManager sharing it.
+     *
+     * @param userIds the dictionary of user ids
+     */
+    public UsersManager(IdDictionary userIds) {
+        this.userIds = userIds;
+        clearIndexes();
     }
 
-    private Map<String, String> mapUsernameToUUID() {
-        Map<String, String> usernameToUUID = new HashMap<>();
-        for (String id : registeredUsers.keySet()) {
-            usernameToUUID.put(registeredUsers.get(id).getUsername(), id);
+    public UsersManager(List<User> userList) {
+        this.userIds = new IdDictionary();
+        clearIndexes();
+        for (User user : userList) {
+            register(user);
         }
-        return usernameToUUID;
     }
 
     public String getIDFromUsername(String username) {
-        return mapUsernameToUUID().get(username);
+        return username == null ? null : usernameToUUID.get(username);
     }
 
     public String getUsernameFromID(String userId) {
-        User user = registeredUsers.get(userId);
+        User user = this.fetchUser(userId);
         return user.getUsername();
     }
 
@@ -56,12 +96,13 @@ public class UsersManager {
      * @return check for authentication of user
      */
     public String authenticateUser(String username, String password) {
-        for (User user : registeredUsers.values()) {
-            if (user.getUsername().equals(username) & user.getPassword().equals(password)) {
-                return user.getId();
-            }
+        String userId = this.getIDFromUsername(username);
+        //the user can be removed between the two lookups
+        User user = userId == null ? null : registeredUsers.get(userId);
+        if (user == null || !user.getPassword().equals(password)) {
+            return null;
         }
-        return null;
+        return userId;
     }
 
 
@@ -71,7 +112,10 @@ public class UsersManager {
      * @param userId that should be deleted from the list of registered users
      */
     public void removeUser(String userId) {
-        registeredUsers.remove(userId);
+        User user = userId == null ? null : registeredUsers.remove(userId);
+        if (user != null) {
+            unindex(user);
+        }
     }
 
     /**
@@ -88,7 +132,7 @@ public class UsersManager {
         }
         UserFactory userFactory = new UserFactory();
         User user = userFactory.getUser(username, password, userType);
-        registeredUsers.put(user.getId(), user);
+        register(user);
         return true;
     }
 
@@ -98,7 +142,19 @@ public class UsersManager {
      * @param user A User object
      */
     public void addUser(User user) {
-        registeredUsers.put(user.getId(), user);
+        register(user);
+    }
+
+    /**
+     * Adds a batch of users to the list of registered users. The users should already have been
+     * checked for conflicts.
+     *
+     * @param users User objects
+     */
+    public void addUsers(List<User> users) {
+        for (User user : users) {
+            register(user);
+        }
     }
 
     /**
@@ -109,12 +165,7 @@ public class UsersManager {
      * @return whether there is a conflict
      */
     public boolean checkConflicts(String userName) {
-        for (User user : registeredUsers.values()) {
-            if (user.getUsername().equals(userName)) {
-                return true;
-            }
-        }
-        return false;
+        return userName != null && usernameToUUID.containsKey(userName);
     }
 
 
@@ -125,7 +176,7 @@ public class UsersManager {
      * @return a User object
      */
     public User fetchUser(String userId) {
-        return registeredUsers.get(userId);
+        return userId == null ? null : registeredUsers.get(userId);
     }
 
     /**
@@ -163,19 +214,143 @@ public class UsersManager {
     }
 
     /**
-     * Returns a list of String of all users.
+     * Returns a list of String of all users. The list is an immutable snapshot that is shared by
+     * every caller until the users change, so it must not be modified.
      */
     public List<String> getAllUsers() {
-        List<String> allUsers = new ArrayList<>();
-        allUsers.addAll(registeredUsers.keySet());
-        return allUsers;
+        Snapshot current = snapshot.get();
+        long currentVersion = version.get();
+        if (current != null && current.version == currentVersion) {
+            return current.users;
+        }
+        List<String> users = Collections.unmodifiableList(new ArrayList<>(registeredUsers.keySet()));
+        //if the users changed while copying, the version has moved on and the next call copies again
+        snapshot.compareAndSet(current, new Snapshot(currentVersion, users));
+        return users;
+    }
+
+    /**
+     * Returns the ids of all users with the given role, in the order they were registered.
+     *
+     * @param role of the users
+     * @return a list of ids of the users with the role
+     */
+    public List<String> getUsersWithRole(Role role) {
+        return new ArrayList<>(usersByRole.get(role));
+    }
+
+    /**
+     * Returns the number of users with the given role.
+     *
+     * @param role of the users
+     * @return the number of users with the role
+     */
+    public int getUserCountWithRole(Role role) {
+        return usersByRole.get(role).size();
+    }
+
+    /**
+     * Find users whose username starts with a prefix, ignoring case, in username order.
+     *
+     * @param prefix of the usernames
+     * @param role   of the users, or null for users of any role
+     * @param limit  the most users to find
+     * @return the ids of the first users whose username starts with the prefix
+     */
+    public List<String> findUsersByPrefix(String prefix, Role role, int limit) {
+        NavigableMap<String, String> usernames = role == null ? sortedUsernames : sortedUsernamesByRole.get(role);
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<String> found = new ArrayList<>();
+        for (String userId : usernames.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            if (found.size() == limit) {
+                break;
+            }
+            found.add(userId);
+        }
+        return found;
+    }
+
+    /**
+     * Put a user into the registered users, giving its id an int in the user dictionary so that
+     * the ints of users stay dense in the order they were registered or loaded, and into the
+     * username indexes and the partition of its role. If two users share a username, the username
+     * stays with the one registered first, and passes to another one once that user is removed.
+     *
+     * @param user to be registered
+     */
+    private void register(User user) {
+        this.userIds.indexOf(user.getId());
+        User replaced = registeredUsers.put(user.getId(), user);
+        if (replaced != null) {
+            unindex(replaced);
+        }
+        usernameToUUID.putIfAbsent(user.getUsername(), user.getId());
+        partitionOf(user).add(user.getId());
+        sortedUsernames.put(sortKey(user), user.getId());
+        Role role = Role.fromName(user.getRole());
+        if (role != null) {
+            sortedUsernamesByRole.get(role).put(sortKey(user), user.getId());
+        }
+        version.incrementAndGet();
+    }
+
+    private void unindex(User user) {
+        partitionOf(user).remove(user.getId());
+        sortedUsernames.remove(sortKey(user));
+        Role role = Role.fromName(user.getRole());
+        if (role != null) {
+            sortedUsernamesByRole.get(role).remove(sortKey(user));
+        }
+        if (usernameToUUID.remove(user.getUsername(), user.getId())) {
+            reindexUsername(user.getUsername());
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Give a username to another registered user with it, if there is one. Users that share a
+     * username are next to each other in the sorted usernames, so only they are looked at.
+     */
+    private void reindexUsername(String username) {
+        String prefix = username.toLowerCase(Locale.ROOT) + '\0';
+        for (String userId : sortedUsernames.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            User other = registeredUsers.get(userId);
+            if (other != null && other.getUsername().equals(username)) {
+                usernameToUUID.putIfAbsent(username, userId);
+                return;
+            }
+        }
+    }
+
+    /**
+     * The key of a user in the sorted username indexes: the lower case username, then the id so
+     * that usernames differing only in case do not collide.
+     */
+    private static String sortKey(User user) {
+        return user.getUsername().toLowerCase(Locale.ROOT) + '\0' + user.getId();
+    }
+
+    private Set<String> partitionOf(User user) {
+        Role role = Role.fromName(user.getRole());
+        return role == null ? new HashSet<>() : usersByRole.get(role);
+    }
+
+    private void clearIndexes() {
+        registeredUsers.clear();
+        usernameToUUID.clear();
+        sortedUsernames.clear();
+        for (Role role : Role.values()) {
+            usersByRole.put(role, new IdSet(userIds));
+            sortedUsernamesByRole.put(role, new ConcurrentSkipListMap<>());
+        }
+        version.incrementAndGet();
     }
 
     public void loadUsersFromGateway(Gateway gateway) {
-        registeredUsers = new HashMap<>();
+        clearIndexes();
         List<User> loadedUsers = gateway.loadUsers();
         for (User user : loadedUsers) {
-            registeredUsers.put(user.getId(), user);
+            register(user);
         }
     }
 
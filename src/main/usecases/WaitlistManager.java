@@ -0,0 +1,120 @@
+package main.usecases;
+
+import main.entities.Waitlist;
+import main.gateways.Gateway;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The WaitlistManager holds the waitlist of every full event.
+ */
+public class WaitlistManager {
+
+    private Map<String, Waitlist> waitlists;
+
+    public WaitlistManager() {
+        this.waitlists = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Add an attendee to the end of the waitlist of an event.
+     *
+     * @param eventId of the event
+     * @param userId  of the attendee
+     * @return true iff the attendee was not on the waitlist already
+     */
+    public boolean joinWaitlist(String eventId, String userId) {
+        Waitlist waitlist = waitlists.computeIfAbsent(eventId, Waitlist::new);
+        synchronized (waitlist) {
+            return waitlist.add(userId);
+        }
+    }
+
+    /**
+     * Remove an attendee from the waitlist of an event.
+     *
+     * @param eventId of the event
+     * @param userId  of the attendee
+     * @return true iff the attendee was on the waitlist
+     */
+    public boolean leaveWaitlist(String eventId, String userId) {
+        Waitlist waitlist = waitlists.get(eventId);
+        if (waitlist == null) {
+            return false;
+        }
+        synchronized (waitlist) {
+            return waitlist.remove(userId);
+        }
+    }
+
+    /**
+     * Return the attendee at the front of the waitlist of an event without removing them.
+     *
+     * @param eventId of the event
+     * @return id of the attendee, or null if nobody is waiting
+     */
+    public String peekWaitlist(String eventId) {
+        Waitlist waitlist = waitlists.get(eventId);
+        if (waitlist == null) {
+            return null;
+        }
+        synchronized (waitlist) {
+            return waitlist.peek();
+        }
+    }
+
+    /**
+     * Get the number of attendees waiting for an event.
+     *
+     * @param eventId of the event
+     * @return size of the waitlist
+     */
+    public int getWaitlistSize(String eventId) {
+        Waitlist waitlist = waitlists.get(eventId);
+        if (waitlist == null) {
+            return 0;
+        }
+        synchronized (waitlist) {
+            return waitlist.size();
+        }
+    }
+
+    /**
+     * Drop the waitlist of an event, i.e. when the event is removed.
+     *
+     * @param eventId of the event
+     */
+    public void removeWaitlist(String eventId) {
+        waitlists.remove(eventId);
+    }
+
+    /**
+     * Saves current waitlists to gateway
+     *
+     * @param gateway An implementation of the Gateway interface
+     */
+    public void saveWaitlistsToGateway(Gateway gateway) {
+        List<Waitlist> waitlistList = new ArrayList<>(this.waitlists.values());
+        gateway.saveWaitlists(waitlistList);
+    }
+
+    /**
+     * Imports and replaces current waitlists with Gateway-provided waitlists, dropping those of
+     * events that are not in the schedule
+     *
+     * @param gateway  An implementation of the Gateway interface
+     * @param eventIds ids of the events in the schedule
+     */
+    public void loadWaitlistsFromGateway(Gateway gateway, Collection<String> eventIds) {
+        this.waitlists = new ConcurrentHashMap<>();
+        for (Waitlist waitlist : gateway.loadWaitlists()) {
+            if (eventIds.contains(waitlist.getEventId())) {
+                this.waitlists.put(waitlist.getEventId(), waitlist);
+            }
+        }
+    }
+}
@@ -8,8 +8,14 @@ import org.junit.Test;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class EventsInfoTest {
     String[] eventsId;
@@ -57,7 +63,7 @@ public class EventsInfoTest {
     @Test
     public void testAddRemoveSpeaker(){
         //test one speaker can not add more
-        EventInfoManager eim = new EventInfoManager(eventsId[0], schedule);
+        EventInfoManager eim = new EventInfoManager(eventsId[0], eventsManager);
         Assert.assertFalse(eim.addSpeaker(speaker1));
         Assert.assertFalse(eim.addSpeaker(speaker2));
         //test one speaker can not be removed if not exist
@@ -73,16 +79,16 @@ public class EventsInfoTest {
         User u1 = new Attendee("user1@email.com", "password");
         User u2 = new Attendee("user2@email.com", "password");
         //test add one user to one event
-        EventInfoManager eim1 = new EventInfoManager(eventsId[0], schedule);
+        EventInfoManager eim1 = new EventInfoManager(eventsId[0], eventsManager);
         Assert.assertTrue(eim1.addUser(u1.getId()));
         //test add multiple users to one event
         Assert.assertTrue(eim1.addUser(u2.getId()));
         //test add multiple users to multiple events
-        EventInfoManager eim2 = new EventInfoManager(eventsId[1], schedule);
+        EventInfoManager eim2 = new EventInfoManager(eventsId[1], eventsManager);
         Assert.assertTrue(eim2.addUser(u1.getId()));
         Assert.assertTrue(eim2.addUser(u2.getId()));
         //test remove users from empty event
-        EventInfoManager eim3 = new EventInfoManager(eventsId[2], schedule);
+        EventInfoManager eim3 = new EventInfoManager(eventsId[2], eventsManager);
         Assert.assertFalse(eim3.removeUser(u1.getId()));
         //test remove existing users from multiple events
         Assert.assertTrue(eim2.removeUser(u1.getId()));
@@ -97,7 +103,7 @@ public class EventsInfoTest {
     @Test
     public void testUpdateEventInfo(){
         //test changing time no conflict
-        EventInfoManager eim = new EventInfoManager(eventsId[1], schedule);
+        EventInfoManager eim = new EventInfoManager(eventsId[1], eventsManager);
         Assert.assertTrue(eim.updateEventInfo(time1,room2));
         //test changing time and time conflict with event1
         Assert.assertFalse(eim.updateEventInfo(time1, room1));
@@ -105,4 +111,56 @@ public class EventsInfoTest {
         Assert.assertFalse(eim.updateEventInfo(time3, room1));
     }
 
+    @Test
+    public void testAddUserWithCapacity(){
+        EventInfoManager eim = new EventInfoManager(eventsId[0], eventsManager);
+        Assert.assertTrue(eim.addUser("user1", 2));
+        //test same user can not take a second seat
+        Assert.assertFalse(eim.addUser("user1", 2));
+        Assert.assertTrue(eim.addUser("user2", 2));
+        //test full event
+        Assert.assertFalse(eim.addUser("user3", 2));
+        //test a cancellation frees a seat
+        Assert.assertTrue(eim.removeUser("user1"));
+        Assert.assertTrue(eim.addUser("user3", 2));
+        Assert.assertEquals(2, eim.getEvent().getAttendeeCount());
+    }
+
+    @Test(timeout = 20000)
+    public void testConcurrentSignUpNeverOversells() throws Exception {
+        int capacity = 500;
+        int threads = 16;
+        int usersPerThread = 1000;
+        EventInfoManager eim = new EventInfoManager(eventsId[0], eventsManager);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < usersPerThread; i++) {
+                    //every user also tries twice, from two threads
+                    String user = "user" + ((thread * usersPerThread + i) % (threads * usersPerThread / 2));
+                    if (eim.addUser(user, capacity)) accepted.incrementAndGet();
+                    //some attendees cancel right away in the first half, the second half refills
+                    if (i < usersPerThread / 2 && i % 7 == 0 && eim.removeUser(user)) accepted.decrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        Event event = eim.getEvent();
+        Assert.assertEquals(capacity, event.getAttendeeCount());
+        Assert.assertEquals(capacity, event.getAttendeesID().size());
+        Assert.assertEquals(capacity, accepted.get());
+        for (String user : event.getAttendeesID()) {
+            Assert.assertEquals(1, eventsManager.getUserEvents(user).size());
+        }
+    }
+
 }
@@ -1,12 +1,18 @@
+import main.controllers.EventController;
+import main.controllers.ProgramController;
 import main.entities.Attendee;
 import main.entities.User;
 import main.usecases.EventBuilder;
+import main.usecases.EventInfoManager;
+import main.usecases.ScheduleReport;
 import main.usecases.EventsManager;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public class EventsManagerTest {
@@ -54,6 +60,39 @@ public class EventsManagerTest {
         Assert.assertFalse(eventsManager.scheduleEvent(e4));
     }
 
+    @Test
+    public void testScheduleEventComparesTimeByValue(){
+        EventBuilder e1 = setUpEvent("Event1", LocalDateTime.of(2020, 1, 1, 12, 0), room1, speaker1);
+        Assert.assertTrue(eventsManager.scheduleEvent(e1));
+        //test room conflict with an equal but distinct time object
+        EventBuilder e2 = setUpEvent("Event2", LocalDateTime.of(2020, 1, 1, 12, 0), room1, speaker2);
+        Assert.assertFalse(eventsManager.scheduleEvent(e2));
+        //test speaker conflict with an equal but distinct time object
+        EventBuilder e3 = setUpEvent("Event3", LocalDateTime.of(2020, 1, 1, 12, 0), room2, speaker1);
+        Assert.assertFalse(eventsManager.scheduleEvent(e3));
+        //test the slot is free again after removal
+        Assert.assertTrue(eventsManager.removeEvent(eventsManager.getEvents().get(0).getId()));
+        Assert.assertTrue(eventsManager.scheduleEvent(e2));
+    }
+
+    @Test(timeout = 10000)
+    public void testScheduleManyEvents(){
+        //benchmark: 100k events over 10 rooms and 9 hourly slots a day
+        String[] rooms = new String[10];
+        for (int i = 0; i < rooms.length; i++) rooms[i] = UUID.randomUUID().toString();
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 9, 0);
+        int n = 100000;
+        for (int i = 0; i < n; i++) {
+            LocalDateTime time = start.plusDays(i / 90).plusHours((i / 10) % 9);
+            EventBuilder eb = setUpEvent("Event" + i, time, rooms[i % 10], "speaker" + i);
+            Assert.assertTrue(eventsManager.scheduleEvent(eb));
+        }
+        Assert.assertEquals(n, eventsManager.getSchedule().size());
+        //every slot is now full
+        EventBuilder clash = setUpEvent("Clash", start.plusDays(500), rooms[3], speaker1);
+        Assert.assertFalse(eventsManager.scheduleEvent(clash));
+    }
+
     @Test
     public void testRemoveEvent(){
         //test empty
@@ -78,16 +117,128 @@ public class EventsManagerTest {
         EventBuilder e2 = setUpEvent("Event2", time2, room1, speaker1);
         eventsManager.scheduleEvent(e2);
         User u1 = new Attendee("user1@email.com", "password");
-        eventsManager.getEvents().get(0).addAttendees(u1.getId());
+        new EventInfoManager(eventsManager.getEvents().get(0).getId(), eventsManager).addUser(u1.getId());
         //test single
         Assert.assertEquals(1, eventsManager.getUserEvents(u1.getId()).size());
         Assert.assertTrue(eventsManager.getEvents().contains(eventsManager.getEvents().get(0)));
         //test multiple
-        eventsManager.getEvents().get(1).addAttendees(u1.getId());
+        new EventInfoManager(eventsManager.getEvents().get(1).getId(), eventsManager).addUser(u1.getId());
         Assert.assertEquals(2, eventsManager.getUserEvents(u1.getId()).size());
         Assert.assertTrue(eventsManager.getEvents().contains(eventsManager.getEvents().get(0)));
         Assert.assertTrue(eventsManager.getEvents().contains(eventsManager.getEvents().get(1)));
     }
 
+    @Test
+    public void testUserAndSpeakerEventsFollowChanges(){
+        EventBuilder e1 = setUpEvent("Event1", time1, room1, speaker1);
+        eventsManager.scheduleEvent(e1);
+        EventBuilder e2 = setUpEvent("Event2", time2, room1, speaker1);
+        eventsManager.scheduleEvent(e2);
+        String e1id = eventsManager.getEvents().get(0).getId();
+        String e2id = eventsManager.getEvents().get(1).getId();
+        User u1 = new Attendee("user1@email.com", "password");
+        new EventInfoManager(e1id, eventsManager).addUser(u1.getId());
+        new EventInfoManager(e2id, eventsManager).addUser(u1.getId());
+        Assert.assertEquals(2, eventsManager.getSpeakerEvents(speaker1).size());
+        //test removing a user drops the event from their list
+        new EventInfoManager(e1id, eventsManager).removeUser(u1.getId());
+        Assert.assertEquals(1, eventsManager.getUserEvents(u1.getId()).size());
+        Assert.assertEquals(e2id, eventsManager.getUserEvents(u1.getId()).get(0).getId());
+        //test changing speaker moves the event between speakers
+        EventInfoManager eim = new EventInfoManager(e2id, eventsManager);
+        Assert.assertTrue(eim.removeSpeaker(speaker1));
+        Assert.assertTrue(eim.addSpeaker(speaker2));
+        Assert.assertEquals(1, eventsManager.getSpeakerEvents(speaker1).size());
+        Assert.assertEquals(e2id, eventsManager.getSpeakerEvents(speaker2).get(0));
+        //test removing an event drops it from every list
+        Assert.assertTrue(eventsManager.removeEvent(e2id));
+        Assert.assertEquals(0, eventsManager.getUserEvents(u1.getId()).size());
+        Assert.assertEquals(0, eventsManager.getSpeakerEvents(speaker2).size());
+    }
+
+    @Test
+    public void testScheduleEvents(){
+        eventsManager.scheduleEvent(setUpEvent("Existing", time1, room1, speaker1));
+        List<EventBuilder> batch = new ArrayList<>();
+        batch.add(setUpEvent("Event1", time2, room1, speaker1));
+        batch.add(setUpEvent("Event2", time1, room1, speaker2));
+        batch.add(setUpEvent("Event3", time2, room2, speaker1));
+        batch.add(setUpEvent("Event4", time2, room1, speaker2));
+        batch.add(setUpEvent("Event5", LocalDateTime.of(2020, 1, 1, 8, 0), room2, speaker2));
+        batch.add(setUpEvent("Event6", time1, room2, speaker2));
+        ScheduleReport report = eventsManager.scheduleEvents(batch);
+        Assert.assertEquals(6, report.size());
+        Assert.assertTrue(report.isAccepted(0));
+        //test room conflict with the existing schedule
+        Assert.assertEquals(ScheduleReport.ROOM_CONFLICT, report.getReason(1));
+        //test speaker and room conflicts within the batch, first one wins
+        Assert.assertEquals(ScheduleReport.SPEAKER_CONFLICT, report.getReason(2));
+        Assert.assertEquals(ScheduleReport.ROOM_CONFLICT, report.getReason(3));
+        Assert.assertEquals(ScheduleReport.OUTSIDE_HOURS, report.getReason(4));
+        Assert.assertTrue(report.isAccepted(5));
+        Assert.assertEquals(2, report.getAcceptedCount());
+        Assert.assertEquals(3, eventsManager.getSchedule().size());
+        Assert.assertTrue(eventsManager.getSchedule().containsKey(report.getEventId(5)));
+    }
 
+    @Test
+    public void testEventOrder(){
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            EventBuilder eb = setUpEvent("Event" + i, time1.plusMinutes(i), room1, speaker1);
+            Assert.assertTrue(eventsManager.scheduleEvent(eb));
+            ids.add(eventsManager.getEventIdAt(i));
+        }
+        Assert.assertEquals(new ArrayList<>(eventsManager.getSchedule().keySet()), ids);
+        //test removing an event shifts the ones after it
+        Assert.assertTrue(eventsManager.removeEvent(ids.get(1)));
+        Assert.assertEquals(4, eventsManager.getEventCount());
+        Assert.assertEquals(ids.get(0), eventsManager.getEventIdAt(0));
+        Assert.assertEquals(ids.get(2), eventsManager.getEventIdAt(1));
+        Assert.assertEquals(ids.get(4), eventsManager.getEventIdAt(3));
+        //test removals in a row and an event added after them
+        Assert.assertTrue(eventsManager.removeEvent(ids.get(0)));
+        Assert.assertTrue(eventsManager.removeEvent(ids.get(3)));
+        Assert.assertFalse(eventsManager.removeEvent(ids.get(3)));
+        Assert.assertTrue(eventsManager.scheduleEvent(setUpEvent("Event5", time2, room2, speaker2)));
+        Assert.assertEquals(3, eventsManager.getEventCount());
+        Assert.assertEquals(ids.get(2), eventsManager.getEventIdAt(0));
+        Assert.assertEquals(ids.get(4), eventsManager.getEventIdAt(1));
+        Assert.assertEquals(new ArrayList<>(eventsManager.getSchedule().keySet()).get(2), eventsManager.getEventIdAt(2));
+    }
+
+    @Test
+    public void testEventsPageBoundaries() throws Exception {
+        ProgramController programController = new ProgramController();
+        EventController eventController = programController.getEventController();
+        //test an empty schedule has one empty page
+        Assert.assertEquals("", eventController.getEventsPage(0, 2));
+        Assert.assertEquals(0, eventController.writeEventsPage(new StringBuilder(), 0, 2));
+
+        programController.getUsersManager().addUser("speaker@email.com", "password", "Speaker");
+        String speaker = programController.getUsersManager().getIDFromUsername("speaker@email.com");
+        programController.getRoomManager().addRoom(1, 10);
+        for (int i = 0; i < 5; i++) {
+            EventBuilder eb = setUpEvent("Event" + i, time1.plusHours(i - 2),
+                    programController.getRoomManager().getRoomIDGivenRoomNum(1), speaker);
+            Assert.assertTrue(eventController.createEvent(eb));
+        }
+        //test full pages and the last partial page
+        StringBuilder out = new StringBuilder();
+        Assert.assertEquals(2, eventController.writeEventsPage(out, 0, 2));
+        Assert.assertTrue(out.toString().contains("Event #2 "));
+        Assert.assertFalse(out.toString().contains("Event #3 "));
+        out = new StringBuilder();
+        Assert.assertEquals(5, eventController.writeEventsPage(out, 4, 2));
+        Assert.assertTrue(out.toString().startsWith("Event #5 "));
+        Assert.assertFalse(out.toString().contains("Event #4 "));
+        Assert.assertFalse(out.toString().contains("Event #6 "));
+        //test a cursor past the end writes nothing
+        Assert.assertEquals("", eventController.getEventsPage(5, 2));
+        Assert.assertEquals("", eventController.getEventsPage(7, 2));
+        //test the pages follow a removal
+        Assert.assertTrue(eventController.removeEvent(eventController.getEventId(0)));
+        Assert.assertEquals(4, eventController.writeEventsPage(new StringBuilder(), 2, 2));
+        Assert.assertEquals("", eventController.getEventsPage(4, 2));
+    }
 }
@@ -1,10 +1,22 @@
 import main.gateways.CSVGateway;
 import main.gateways.Gateway;
+import main.gateways.MessageLog;
+import main.gateways.UserCSVImporter;
+import main.usecases.ImportReport;
+import main.usecases.UsersManager;
 import org.junit.*;
 import main.entities.*;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class GatewayTest {
 
@@ -31,4 +43,123 @@ public class GatewayTest {
 
 
     }
+
+    @Test
+    public void testMessageLogRollsAndReplays() throws IOException {
+        File directory = Files.createTempDirectory("messages").toFile();
+        try {
+            MessageLog log = new MessageLog(directory.getPath(), 1024);
+            List<Message> sent = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                Message message = new Message("line " + i + "\twith\\tabs\nand breaks", "sender" + (i % 5));
+                log.append(message);
+                sent.add(message);
+            }
+            log.close();
+            Assert.assertTrue(log.getSegmentCount() > 1);
+
+            //a new log over the same directory keeps appending to the last segment
+            MessageLog reopened = new MessageLog(directory.getPath(), 1024);
+            Message last = new Message("last", null);
+            reopened.append(last);
+            sent.add(last);
+            reopened.flush();
+            List<Message> replayed = reopened.replay();
+            Assert.assertEquals(sent.size(), replayed.size());
+            for (int i = 0; i < sent.size(); i++) {
+                Assert.assertEquals(sent.get(i).getId(), replayed.get(i).getId());
+                Assert.assertEquals(sent.get(i).getText(), replayed.get(i).getText());
+                Assert.assertEquals(sent.get(i).getSender(), replayed.get(i).getSender());
+                Assert.assertEquals(sent.get(i).getDate(), replayed.get(i).getDate());
+            }
+            reopened.close();
+
+            //a record cut off by a crash is dropped
+            File[] segments = directory.listFiles();
+            Arrays.sort(segments);
+            File tail = segments[segments.length - 1];
+            try (FileWriter writer = new FileWriter(tail, true)) {
+                writer.write("deadbeef\tcut off");
+            }
+            Assert.assertEquals(sent.size(), new MessageLog(directory.getPath(), 1024).replay().size());
+
+            //and a record appended after the crash is kept
+            MessageLog afterCrash = new MessageLog(directory.getPath(), 1 << 20);
+            afterCrash.append(new Message("after crash", null));
+            afterCrash.close();
+            replayed = afterCrash.replay();
+            Assert.assertEquals(sent.size() + 1, replayed.size());
+            Assert.assertEquals("after crash", replayed.get(replayed.size() - 1).getText());
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testMessageLogSurvivesTornCharacter() throws IOException {
+        File directory = Files.createTempDirectory("messages").toFile();
+        try {
+            MessageLog log = new MessageLog(directory.getPath(), 1 << 20);
+            Message kept = new Message("caf\u00e9 is open", "sender");
+            log.append(kept);
+            log.append(new Message("coffee \u2615", "sender"));
+            log.close();
+
+            //cut the last record off in the middle of its three byte character
+            File segment = directory.listFiles()[0];
+            byte[] bytes = Files.readAllBytes(segment.toPath());
+            int cut = bytes.length - 1;
+            while ((bytes[cut] & 0xff) != 0xe2) {
+                cut--;
+            }
+            try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+                file.setLength(cut + 2);
+            }
+
+            List<Message> replayed = new MessageLog(directory.getPath(), 1 << 20).replay();
+            Assert.assertEquals(1, replayed.size());
+            Assert.assertEquals(kept.getText(), replayed.get(0).getText());
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testBulkUserImport() throws IOException {
+        UsersManager usersManager = new UsersManager();
+        usersManager.addUser("taken@gmail.com", "12345", "Attendee");
+        StringBuilder csv = new StringBuilder("username,password,role\n");
+        for (int i = 0; i < 10000; i++) {
+            csv.append("\"user").append(i).append("@gmail.com\",12345,\"Attendee\"\n");
+        }
+        csv.append("\"taken@gmail.com\",12345,\"Speaker\"\n");
+        csv.append("\"user7@gmail.com\",12345,\"Speaker\"\n");
+        csv.append("\"guest@gmail.com\",12345,\"Guest\"\n");
+        csv.append("\"short@gmail.com\",12345\n");
+        csv.append("\"open quote@gmail.com,12345,Attendee\n");
+        csv.append("speaker@gmail.com,12345,speaker\n");
+        //small chunks and a small window so that chunks finish out of order
+        UserCSVImporter importer = new UserCSVImporter(usersManager, ForkJoinPool.commonPool(), 64, 3);
+        ImportReport report = importer.importUsers(new StringReader(csv.toString()));
+        Assert.assertEquals(10001, report.getImported());
+        Assert.assertEquals(5, report.getRejected());
+        Assert.assertEquals(10002, report.getErrors().get(0).getLine());
+        Assert.assertEquals(10003, report.getErrors().get(1).getLine());
+        Assert.assertEquals(10006, report.getErrors().get(4).getLine());
+        Assert.assertEquals("Attendee", usersManager.fetchRole(usersManager.getIDFromUsername("user7@gmail.com")));
+        Assert.assertEquals("Speaker", usersManager.fetchRole(usersManager.getIDFromUsername("speaker@gmail.com")));
+        Assert.assertEquals("Attendee", usersManager.fetchRole(usersManager.getIDFromUsername("taken@gmail.com")));
+    }
 }
@@ -0,0 +1,63 @@
+import main.entities.IdDictionary;
+import main.entities.IdSet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class IdSetTest {
+    IdDictionary dictionary;
+    IdSet set;
+
+    @Before
+    public void setUp() {
+        dictionary = new IdDictionary();
+        set = new IdSet(dictionary);
+    }
+
+    @Test
+    public void testAddRemoveContains() {
+        Assert.assertTrue(set.add("a"));
+        Assert.assertFalse(set.add("a"));
+        Assert.assertTrue(set.contains("a"));
+        Assert.assertFalse(set.contains("b"));
+        Assert.assertFalse(set.remove("b"));
+        Assert.assertEquals(1, set.size());
+        Assert.assertTrue(set.remove("a"));
+        Assert.assertFalse(set.contains("a"));
+        Assert.assertEquals(0, set.size());
+        //test the id keeps its int after leaving the set
+        Assert.assertEquals(0, dictionary.lookup("a"));
+    }
+
+    @Test
+    public void testIterateSparseMembers() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            ids.add(UUID.randomUUID().toString());
+            dictionary.indexOf(ids.get(i));
+        }
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += 997) {
+            set.add(ids.get(i));
+            expected.add(ids.get(i));
+        }
+        set.add(ids.get(ids.size() - 1));
+        expected.add(ids.get(ids.size() - 1));
+        Set<String> seen = new HashSet<>();
+        String previous = null;
+        for (String id : set) {
+            Assert.assertTrue(seen.add(id));
+            //test members come in dictionary order
+            if (previous != null) Assert.assertTrue(dictionary.lookup(previous) < dictionary.lookup(id));
+            previous = id;
+        }
+        Assert.assertEquals(expected, seen);
+        Assert.assertEquals(expected.size(), set.size());
+    }
+}
@@ -0,0 +1,362 @@
+import main.controllers.MessageController;
+import main.controllers.ProgramController;
+import main.entities.Inbox;
+import main.entities.Message;
+import main.screencontrollers.NewMessageSubscriber;
+import main.usecases.BroadcastDelivery;
+import main.usecases.BroadcastPipeline;
+import main.usecases.InboxManager;
+import main.usecases.MessageIndex;
+import main.usecases.MessageManager;
+import main.usecases.UsersManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+public class MessageTest {
+    ProgramController programController;
+    MessageController messageController;
+    InboxManager inboxManager;
+    MessageManager messageManager;
+    String organizer;
+    List<String> attendees;
+
+    @Before
+    public void setUp() {
+        programController = new ProgramController();
+        messageController = programController.getMessageController();
+        inboxManager = programController.getInboxManager();
+        messageManager = programController.getMessageManager();
+        UsersManager usersManager = programController.getUsersManager();
+        usersManager.addUser("organizer@email.com", "password", "Organizer");
+        organizer = usersManager.getIDFromUsername("organizer@email.com");
+        attendees = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            usersManager.addUser("attendee" + i + "@email.com", "password", "Attendee");
+            attendees.add(usersManager.getIDFromUsername("attendee" + i + "@email.com"));
+        }
+    }
+
+    @Test
+    public void testBroadcastSharesOneMessage() {
+        messageController.broadCastToAttendees(organizer, "Welcome").getFuture().join();
+        String shared = inboxManager.getMessagesOfUser(attendees.get(0)).get(0);
+        for (String attendee : attendees) {
+            List<String> messages = inboxManager.getMessagesOfUser(attendee);
+            Assert.assertEquals(1, messages.size());
+            Assert.assertEquals(shared, messages.get(0));
+        }
+        Assert.assertEquals("Welcome", messageManager.retrieveMessageText(shared));
+        Assert.assertEquals(organizer, messageManager.retrieveMessageSender(shared));
+        Assert.assertEquals(0, inboxManager.getMessagesOfUser(organizer).size());
+    }
+
+    @Test(timeout = 10000)
+    public void testBroadcastPipelineBackpressure() throws InterruptedException {
+        List<String> receivers = new ArrayList<>();
+        for (int i = 0; i < 5 * BroadcastPipeline.BATCH_SIZE; i++) {
+            receivers.add(attendees.get(i % attendees.size()) + i);
+        }
+        //the only worker holds the first batch until released, so the queue of two fills up
+        CountDownLatch release = new CountDownLatch(1);
+        InboxManager slowInboxes = new InboxManager() {
+            @Override
+            public void putMessageInToInboxes(String message, String sender, LocalDateTime sentAt,
+                                              Collection<String> receivers) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.putMessageInToInboxes(message, sender, sentAt, receivers);
+            }
+        };
+        BroadcastPipeline pipeline = new BroadcastPipeline(slowInboxes, 2, 1);
+        String message = messageManager.createMessage("Hello", organizer);
+        BroadcastDelivery[] delivery = new BroadcastDelivery[1];
+        Thread submitter = new Thread(() -> delivery[0] = pipeline.submit(message, organizer,
+                messageManager.retrieveMessageDate(message), receivers));
+        submitter.start();
+        while (pipeline.getQueuedBatches() < 2 || submitter.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        //test submit waits while the queue is full
+        Thread.sleep(100);
+        Assert.assertTrue(submitter.isAlive());
+        Assert.assertEquals(2, pipeline.getQueuedBatches());
+        release.countDown();
+        submitter.join();
+        pipeline.drain();
+        Assert.assertTrue(delivery[0].isDone());
+        Assert.assertEquals(receivers.size(), delivery[0].getDelivered());
+        for (String receiver : receivers) {
+            Assert.assertEquals(message, slowInboxes.getMessagesOfUser(receiver).get(0));
+        }
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void testInboxPages() {
+        Inbox inbox = new Inbox(organizer);
+        List<String> sent = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String message = messageManager.createMessage("Message " + i, attendees.get(0));
+            inbox.addMessage(message);
+            sent.add(message);
+        }
+        Assert.assertEquals(sent, inbox.getMessages());
+        //page from the newest message back to the oldest
+        List<String> paged = new ArrayList<>();
+        int cursor = inbox.getMessageCount();
+        while (cursor > 0) {
+            List<String> page = inbox.getMessagesBefore(cursor, 30);
+            Assert.assertTrue(page.size() <= 30);
+            paged.addAll(page);
+            cursor -= page.size();
+        }
+        Collections.reverse(paged);
+        Assert.assertEquals(sent, paged);
+        Assert.assertEquals(0, inbox.getMessagesBefore(0, 30).size());
+    }
+
+    @Test
+    public void testUnreadWatermark() {
+        String reader = attendees.get(0);
+        for (int i = 0; i < 25; i++) {
+            messageController.sendMessage(organizer, reader, "Message " + i);
+        }
+        Assert.assertEquals(25, inboxManager.getUnreadCountOfUser(reader));
+        List<String> unread = inboxManager.readUnreadMessagesOfUser(reader, 10);
+        Assert.assertEquals(10, unread.size());
+        Assert.assertEquals("Message 0", messageManager.retrieveMessageText(unread.get(0)));
+        Assert.assertEquals(15, inboxManager.getUnreadCountOfUser(reader));
+        //test the watermark never moves back
+        inboxManager.markMessagesOfUserRead(reader, 5);
+        Assert.assertEquals(15, inboxManager.getUnreadCountOfUser(reader));
+        unread = inboxManager.readUnreadMessagesOfUser(reader, 10);
+        Assert.assertEquals("Message 10", messageManager.retrieveMessageText(unread.get(0)));
+        messageController.sendMessage(organizer, reader, "Message 25");
+        Assert.assertEquals(6, inboxManager.getUnreadCountOfUser(reader));
+        inboxManager.markMessagesOfUserRead(reader, inboxManager.getMessageCountOfUser(reader));
+        Assert.assertEquals(0, inboxManager.getUnreadCountOfUser(reader));
+        Assert.assertEquals(0, inboxManager.readUnreadMessagesOfUser(reader, 10).size());
+    }
+
+    @Test
+    public void testNewestPageDoesNotSkipUnread() {
+        String reader = attendees.get(0);
+        for (int i = 0; i < 25; i++) {
+            messageController.sendMessage(organizer, reader, "Message " + i);
+        }
+        //test showing the newest 10 of 25 unread messages leaves the older 15 unread
+        inboxManager.markPageOfUserRead(reader, 15, 25);
+        Assert.assertEquals(25, inboxManager.getUnreadCountOfUser(reader));
+        //test a page is marked once everything before it was read
+        inboxManager.readUnreadMessagesOfUser(reader, 15);
+        inboxManager.markPageOfUserRead(reader, 15, 25);
+        Assert.assertEquals(0, inboxManager.getUnreadCountOfUser(reader));
+        for (int i = 25; i < 40; i++) {
+            messageController.sendMessage(organizer, reader, "Message " + i);
+        }
+        //test arrivals beyond a page stay unread when only the newest page is shown
+        inboxManager.markPageOfUserRead(reader, 30, 40);
+        Assert.assertEquals(15, inboxManager.getUnreadCountOfUser(reader));
+    }
+
+    @Test
+    public void testSearchMessages() {
+        String reader = attendees.get(0);
+        String other = attendees.get(1);
+        messageController.sendMessage(organizer, reader, "Lunch is in room 5");
+        messageController.sendMessage(other, reader, "Is lunch vegetarian?");
+        messageController.sendMessage(organizer, reader, "Keynote moved to noon");
+        messageController.sendMessage(organizer, other, "Lunch is in room 5 for you too");
+        Map<String, String> found = programController.getInboxController()
+                .searchMessagesOfUser(reader, "LUNCH", null, null, null, 10);
+        Assert.assertEquals(2, found.size());
+        found = programController.getInboxController()
+                .searchMessagesOfUser(reader, "lunch room", "organizer@email.com", null, null, 10);
+        Assert.assertEquals(1, found.size());
+        Assert.assertEquals(0, programController.getInboxController()
+                .searchMessagesOfUser(reader, "dinner", null, null, null, 10).size());
+        //test a date range with no keywords
+        LocalDateTime now = LocalDateTime.now();
+        Assert.assertEquals(3, programController.getInboxController()
+                .searchMessagesOfUser(reader, "", null, now.minusDays(1), now.plusDays(1), 10).size());
+        Assert.assertEquals(0, programController.getInboxController()
+                .searchMessagesOfUser(reader, "", null, now.plusDays(1), null, 10).size());
+        //test a sender with no keywords reads the inbox newest first, up to the limit
+        found = programController.getInboxController()
+                .searchMessagesOfUser(reader, " ", "organizer@email.com", null, null, 1);
+        Assert.assertEquals(1, found.size());
+        Assert.assertEquals(inboxManager.getMessagesOfUser(reader).get(2), found.keySet().iterator().next());
+        Assert.assertEquals(2, programController.getInboxController()
+                .searchMessagesOfUser(reader, null, "organizer@email.com", null, null, 10).size());
+    }
+
+    @Test
+    public void testMessageIndexBuild() {
+        Message[] messages = new Message[10000];
+        MessageIndex incremental = new MessageIndex();
+        for (int i = 0; i < messages.length; i++) {
+            if (i % 7 != 0) {
+                messages[i] = new Message("word" + (i % 13) + " common", "sender" + (i % 3));
+                incremental.add(i, messages[i]);
+            }
+        }
+        MessageIndex built = MessageIndex.build(messages);
+        for (String query : new String[]{"common", "word5", "word5 common", "missing"}) {
+            Assert.assertArrayEquals(incremental.search(query, null), built.search(query, null));
+            Assert.assertArrayEquals(incremental.search(query, "sender1"), built.search(query, "sender1"));
+        }
+        int[] word5 = built.search("word5", "sender2");
+        for (int i = 1; i < word5.length; i++) {
+            Assert.assertTrue(word5[i - 1] < word5[i]);
+        }
+    }
+
+    @Test
+    public void testReplyOptionsByRecency() {
+        String speaker = attendees.get(0);
+        messageController.sendMessage(attendees.get(1), speaker, "First");
+        messageController.sendMessage(attendees.get(2), speaker, "Second");
+        messageController.sendMessage(attendees.get(1), speaker, "Third");
+        messageController.sendMessage(attendees.get(3), speaker, "Fourth");
+        List<String> options = messageController.replyOptionsForSpeaker(speaker);
+        Assert.assertEquals(3, options.size());
+        Assert.assertEquals(attendees.get(3), options.get(0));
+        Assert.assertEquals(attendees.get(1), options.get(1));
+        Assert.assertEquals(attendees.get(2), options.get(2));
+        Assert.assertEquals("attendee3@email.com", messageController.replyOptionsInString(options).get(0));
+        //test the time of a sender is the time its newest message was sent
+        String second = inboxManager.getMessagesOfUser(speaker).get(1);
+        Assert.assertEquals(messageManager.retrieveMessageDate(second),
+                inboxManager.getLastMessageTime(speaker, attendees.get(2)));
+        Assert.assertNull(inboxManager.getLastMessageTime(speaker, organizer));
+    }
+
+    @Test
+    public void testTieredStorage() {
+        MessageManager tiered = new MessageManager(200000);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(tiered.createMessage("Message number " + i, attendees.get(i % attendees.size())));
+        }
+        //test the manager numbers its own messages from 0, whatever other managers hold
+        Assert.assertEquals(0, tiered.getMessageIds().lookup(ids.get(0)));
+        Assert.assertEquals(1000, tiered.getMessageIds().size());
+        //test the bookkeeping left on the heap by cold messages counts against the budget
+        Assert.assertTrue(tiered.getResidentBytes() > 100000);
+        Assert.assertTrue(tiered.getHotBytes() + tiered.getResidentBytes() <= 200000);
+        Assert.assertTrue(tiered.getColdCount() > 900);
+        Assert.assertTrue(tiered.getColdCount() < 1000);
+        for (int i = 0; i < ids.size(); i++) {
+            Assert.assertEquals("Message number " + i, tiered.retrieveMessageText(ids.get(i)));
+            Assert.assertEquals(attendees.get(i % attendees.size()), tiered.retrieveMessageSender(ids.get(i)));
+            Assert.assertNotNull(tiered.retrieveMessageDate(ids.get(i)));
+        }
+        //test search reads cold messages too
+        LocalDateTime now = LocalDateTime.now();
+        Assert.assertEquals(1000, tiered.searchMessages(null, null, now.minusDays(1), null).cardinality());
+        Assert.assertTrue(tiered.searchMessages("number 3", null, null, null).get(
+                tiered.getMessageIds().lookup(ids.get(3))));
+    }
+
+    @Test
+    public void testInboxNotifications() throws InterruptedException {
+        String reader = attendees.get(0);
+        messageController.sendMessage(organizer, reader, "Before subscribing");
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch arrived = new CountDownLatch(3);
+        inboxManager.getNotificationsOfUser(reader).subscribe(new Flow.Subscriber<String>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String messageId) {
+                received.add(messageId);
+                arrived.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        for (int i = 0; i < 3; i++) {
+            messageController.sendMessage(organizer, reader, "Message " + i);
+        }
+        messageController.sendMessage(organizer, attendees.get(1), "Not for the reader");
+        Assert.assertTrue(arrived.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(inboxManager.getMessagesOfUser(reader).subList(1, 4), received);
+    }
+
+    @Test
+    public void testReceiversForAttendeeSkipSender() {
+        Collection<String> receivers = messageController.receiversForAttendeeAndOrganizer(organizer);
+        List<String> all = programController.getUsersManager().getAllUsers();
+        Assert.assertEquals(all.size() - 1, receivers.size());
+        Assert.assertFalse(receivers.contains(organizer));
+        Assert.assertTrue(receivers.containsAll(attendees));
+    }
+
+    @Test
+    public void testSearchInboxCreatedOnDelivery() {
+        //an inbox made when the first message arrives has to share the ints of the message manager
+        String newcomer = UUID.randomUUID().toString();
+        messageController.sendMessage(organizer, attendees.get(0), "Sent before the newcomer came");
+        messageController.sendMessage(organizer, newcomer, "Welcome aboard");
+        List<String> found = inboxManager.filterMessagesOfUser(newcomer,
+                messageManager.searchMessages("aboard", null, null, null), 10);
+        Assert.assertEquals(inboxManager.getMessagesOfUser(newcomer), found);
+    }
+
+    @Test
+    public void testSlowSubscriberRefetches() throws InterruptedException {
+        String reader = attendees.get(0);
+        NewMessageSubscriber newMessages = new NewMessageSubscriber(10);
+        inboxManager.getNotificationsOfUser(reader).subscribe(newMessages);
+        int seen = inboxManager.getMessageCountOfUser(reader);
+        int sent = 2 * InboxManager.NOTIFICATION_BUFFER;
+        for (int i = 0; i < sent; i++) {
+            messageController.sendMessage(organizer, reader, "Flood " + i);
+        }
+        //test the inbox is fetched again when the subscriber fell behind
+        Assert.assertNull(newMessages.drainAll(seen, inboxManager.getMessageCountOfUser(reader)));
+
+        //test the ids past the buffer were dropped rather than queued
+        int received = 0;
+        int quiet = 0;
+        while (quiet < 5) {
+            Thread.sleep(20);
+            int drained = newMessages.drain().size();
+            received += drained;
+            quiet = drained == 0 ? quiet + 1 : 0;
+        }
+        Assert.assertTrue(received < sent);
+
+        //test the publisher is dropped once its last subscriber cancels
+        Assert.assertTrue(inboxManager.hasNotificationsOfUser(reader));
+        newMessages.cancel();
+        Assert.assertFalse(inboxManager.hasNotificationsOfUser(reader));
+        messageController.sendMessage(organizer, reader, "Nobody listening");
+        Assert.assertFalse(inboxManager.hasNotificationsOfUser(reader));
+    }
+}
@@ -0,0 +1,81 @@
+import main.entities.Room;
+import main.gateways.beans.RoomBean;
+import main.gateways.converters.RoomConverter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class RoomCalendarTest {
+    Room room;
+    LocalDate day;
+
+    @Before
+    public void setUp() {
+        room = new Room(1);
+        day = LocalDate.of(2020, 1, 1);
+    }
+
+    @Test
+    public void testBookAndRelease() {
+        LocalDateTime noon = day.atTime(12, 0);
+        Assert.assertTrue(room.isFree(noon));
+        room.addToSchedule(noon, "event1");
+        Assert.assertFalse(room.isFree(noon));
+        Assert.assertTrue(room.isFree(day.atTime(12, 1)));
+        Assert.assertEquals("event1", room.getSchedule().get(noon));
+        //test replacing a booking keeps one entry
+        room.addToSchedule(noon, "event2");
+        Assert.assertEquals(1, room.getScheduleSize());
+        Assert.assertEquals("event2", room.getSchedule().get(noon));
+        room.removeFromSchedule(noon, "event2");
+        Assert.assertTrue(room.isFree(noon));
+        Assert.assertEquals(0, room.getScheduleSize());
+    }
+
+    @Test
+    public void testNextFreeSlotAndBookings() {
+        //book the whole morning
+        for (LocalDateTime t = day.atTime(9, 0); t.getHour() < 12; t = t.plusMinutes(1)) {
+            room.addToSchedule(t, "event" + t);
+        }
+        Assert.assertEquals(day.atTime(12, 0), room.nextFreeSlot(day.atTime(8, 0)));
+        Assert.assertEquals(day.atTime(12, 0), room.nextFreeSlot(day.atTime(10, 30)));
+        Assert.assertEquals(day.atTime(13, 0), room.nextFreeSlot(day.atTime(13, 0)));
+        //after the last slot of the day, the next day opens
+        Assert.assertEquals(day.plusDays(1).atTime(9, 0), room.nextFreeSlot(day.atTime(18, 0)));
+        Assert.assertEquals(180, room.bookingsOn(day));
+        Assert.assertEquals(0, room.bookingsOn(day.plusDays(1)));
+    }
+
+    @Test
+    public void testConverterRoundTrip() {
+        LocalDateTime early = LocalDateTime.of(2020, 2, 12, 7, 33);
+        room.addToSchedule(day.atTime(9, 0), "event1");
+        room.addToSchedule(day.atTime(17, 59), "event2");
+        room.addToSchedule(early, "event3");
+        Room emptyRoom = new Room(2);
+        List<Room> rooms = new ArrayList<>();
+        rooms.add(room);
+        rooms.add(emptyRoom);
+
+        RoomConverter converter = new RoomConverter();
+        List<RoomBean> beans = converter.convertToBeans(rooms);
+        Assert.assertEquals(4, beans.size());
+        for (Room loaded : converter.convertFromBeans(beans)) {
+            if (loaded.getId().equals(room.getId())) {
+                Map<LocalDateTime, String> schedule = loaded.getSchedule();
+                Assert.assertEquals(room.getSchedule(), schedule);
+                Assert.assertEquals("event3", schedule.get(early));
+            } else {
+                Assert.assertEquals(emptyRoom.getId(), loaded.getId());
+                Assert.assertEquals(0, loaded.getScheduleSize());
+            }
+        }
+    }
+}
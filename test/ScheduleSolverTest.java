@@ -0,0 +1,100 @@
+import main.usecases.EventBuilder;
+import main.usecases.EventsManager;
+import main.usecases.RoomManager;
+import main.usecases.ScheduleReport;
+import main.usecases.ScheduleSolver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class ScheduleSolverTest {
+    EventsManager eventsManager;
+    RoomManager roomManager;
+    ScheduleSolver solver;
+    LocalDate firstDay;
+
+    @Before
+    public void setUp() {
+        eventsManager = new EventsManager();
+        roomManager = new RoomManager();
+        solver = new ScheduleSolver(eventsManager, roomManager);
+        firstDay = LocalDate.of(2020, 1, 1);
+    }
+
+    public EventBuilder setUpDraft(String title, String speakerID) {
+        EventBuilder eb = new EventBuilder();
+        eb.setTitle(title);
+        eb.setSpeaker(speakerID);
+        return eb;
+    }
+
+    @Test
+    public void testSolveAvoidsExistingBookings() {
+        roomManager.addRoom(1, 2);
+        String room = roomManager.getRoomIDGivenRoomNum(1);
+        String speaker = UUID.randomUUID().toString();
+        EventBuilder existing = setUpDraft("Existing", speaker);
+        existing.setTime(firstDay.atTime(9, 0));
+        existing.setRoom(room);
+        Assert.assertTrue(eventsManager.scheduleEvent(existing));
+
+        List<EventBuilder> drafts = new ArrayList<>();
+        drafts.add(setUpDraft("Event1", speaker));
+        drafts.add(setUpDraft("Event2", UUID.randomUUID().toString()));
+        Assert.assertEquals(2, solver.solve(drafts, firstDay, 1, 0));
+        for (EventBuilder draft : drafts) {
+            Assert.assertNotEquals(firstDay.atTime(9, 0), draft.getTime());
+            Assert.assertEquals(room, draft.getRoom());
+        }
+        Assert.assertEquals(2, eventsManager.scheduleEvents(drafts).getAcceptedCount());
+    }
+
+    @Test(timeout = 5000)
+    public void testSolveReportsWhatDoesNotFit() {
+        roomManager.addRoom(1, 2);
+        //one day has nine slots, so a speaker cannot give ten talks
+        String speaker = UUID.randomUUID().toString();
+        List<EventBuilder> drafts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            drafts.add(setUpDraft("Event" + i, speaker));
+        }
+        //test the solver stops at the greedy result instead of searching for the whole minute
+        Assert.assertEquals(9, solver.solve(drafts, firstDay, 1, 60000));
+        ScheduleReport report = eventsManager.scheduleEvents(drafts);
+        Assert.assertEquals(9, report.getAcceptedCount());
+        Assert.assertEquals(ScheduleReport.MISSING_TIME, report.getReason(9));
+    }
+
+    @Test(timeout = 10000)
+    public void testSolveLargeProgram() {
+        //2,000 sessions by 100 speakers in 40 rooms over 6 days
+        for (int r = 1; r <= 40; r++) {
+            roomManager.addRoom(r, 100);
+        }
+        List<EventBuilder> drafts = new ArrayList<>();
+        for (int s = 0; s < 100; s++) {
+            String speaker = UUID.randomUUID().toString();
+            for (int i = 0; i < 20; i++) {
+                drafts.add(setUpDraft("Session " + s + "." + i, speaker));
+            }
+        }
+        Assert.assertEquals(2000, solver.solve(drafts, firstDay, 6, 5000));
+        Set<String> roomSlots = new HashSet<>();
+        Set<String> speakerSlots = new HashSet<>();
+        for (EventBuilder draft : drafts) {
+            LocalDateTime time = draft.getTime();
+            Assert.assertTrue(time.getHour() >= 9 && time.getHour() <= 17);
+            Assert.assertTrue(roomSlots.add(time + draft.getRoom()));
+            Assert.assertTrue(speakerSlots.add(time + draft.getSpeaker()));
+        }
+        Assert.assertEquals(2000, eventsManager.scheduleEvents(drafts).getAcceptedCount());
+    }
+}
@@ -1,15 +1,19 @@
 import main.controllers.AuthController;
 import main.controllers.ProgramController;
 import main.entities.Attendee;
+import main.entities.Session;
 import main.entities.Organizer;
 import main.entities.Speaker;
 import main.entities.User;
+import main.usecases.SessionManager;
 import main.usecases.UsersManager;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class UserAuthTest {
     AuthController authController;
@@ -129,4 +133,57 @@ public class UserAuthTest {
         Assert.assertNull(removedUser);
     }
 
+    @Test
+    public void testManySessions() {
+        ProgramController program = new ProgramController();
+        AuthController auth = program.getAuthController();
+        String[] tokens = new String[1000];
+        for (int i = 0; i < tokens.length; i++) {
+            Assert.assertTrue(auth.registerUser("user" + i + "@gmail.com", "password", "Attendee"));
+            tokens[i] = auth.openSession("user" + i + "@gmail.com", "password");
+        }
+        Assert.assertNull(auth.openSession("user1@gmail.com", "wrong"));
+        for (int i = 0; i < tokens.length; i++) {
+            Session session = auth.fetchSession(tokens[i]);
+            Assert.assertEquals(program.getUsersManager().getIDFromUsername("user" + i + "@gmail.com"),
+                    session.getUserId());
+        }
+        Assert.assertTrue(auth.closeSession(tokens[7]));
+        Assert.assertNull(auth.fetchSession(tokens[7]));
+        Assert.assertNotNull(auth.fetchSession(tokens[8]));
+        Assert.assertFalse(auth.isLoggedIn());
+    }
+
+    @Test
+    public void testSessionIdleExpiry() {
+        AtomicLong now = new AtomicLong(0);
+        SessionManager sessions = new SessionManager(Duration.ofMinutes(30), now::get);
+        String active = sessions.openSession("active");
+        String idle = sessions.openSession("idle");
+        now.set(Duration.ofMinutes(20).toMillis());
+        Assert.assertNotNull(sessions.getSession(active));
+        now.set(Duration.ofMinutes(40).toMillis());
+        Assert.assertNotNull(sessions.getSession(active));
+        Assert.assertEquals(1, sessions.expireIdleSessions());
+        Assert.assertNull(sessions.getSession(idle));
+        Assert.assertEquals(1, sessions.getSessionCount());
+    }
+
+    @Test
+    public void testConsoleSessionDoesNotExpire() {
+        AtomicLong now = new AtomicLong(0);
+        UsersManager users = new UsersManager();
+        users.addUser("console@gmail.com", "password", "Attendee");
+        users.addUser("remote@gmail.com", "password", "Attendee");
+        AuthController auth = new AuthController(null, users,
+                new SessionManager(Duration.ofMinutes(30), now::get));
+        Assert.assertTrue(auth.login("console@gmail.com", "password"));
+        String remote = auth.openSession("remote@gmail.com", "password");
+        now.set(Duration.ofHours(2).toMillis());
+        Assert.assertTrue(auth.isLoggedIn());
+        Assert.assertEquals(users.getIDFromUsername("console@gmail.com"), auth.fetchLoggedInUser());
+        Assert.assertNull(auth.fetchSession(remote));
+        Assert.assertEquals(0, auth.getSessionManager().expireIdleSessions());
+        Assert.assertEquals(1, auth.getSessionManager().getSessionCount());
+    }
 }
@@ -1,8 +1,12 @@
 import main.entities.Attendee;
 import org.junit.*;
 import main.entities.*;
+import main.usecases.UsersManager;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class UserTest {
 
@@ -53,4 +57,118 @@ public class UserTest {
         Assert.assertNotEquals(organizer.getId(), speaker.getId());
         Assert.assertNotEquals(speaker.getId(), attendee.getId());
     }
+
+    @Test
+    public void testRolePartitions() {
+        UsersManager usersManager = new UsersManager(Arrays.asList(attendee, speaker, organizer));
+        Assert.assertEquals(Arrays.asList(speaker.getId()), usersManager.getUsersWithRole(Role.SPEAKER));
+        usersManager.addUser("speaker2@mail.utoronto.ca", "speaker123", "speaker");
+        String speaker2 = usersManager.getIDFromUsername("speaker2@mail.utoronto.ca");
+        Assert.assertEquals(Arrays.asList(speaker.getId(), speaker2), usersManager.getUsersWithRole(Role.SPEAKER));
+        usersManager.removeUser(speaker.getId());
+        Assert.assertEquals(Arrays.asList(speaker2), usersManager.getUsersWithRole(Role.SPEAKER));
+        Assert.assertEquals(1, usersManager.getUserCountWithRole(Role.ATTENDEE));
+        Assert.assertEquals(1, usersManager.getUserCountWithRole(Role.ORGANIZER));
+        Assert.assertEquals(Role.ATTENDEE, Role.fromName("attendee"));
+        Assert.assertNull(Role.fromName("Guest"));
+    }
+
+    @Test
+    public void testDuplicateUsernameSurvivesRemoval() {
+        User first = new Attendee("same@mail.utoronto.ca", "first");
+        User second = new Speaker("same@mail.utoronto.ca", "second");
+        User other = new Attendee("Same@mail.utoronto.ca", "other");
+        UsersManager usersManager = new UsersManager(Arrays.asList(first, other, second));
+        Assert.assertEquals(first.getId(), usersManager.getIDFromUsername("same@mail.utoronto.ca"));
+        //test the username passes to the remaining user, and not to one differing in case
+        usersManager.removeUser(first.getId());
+        Assert.assertEquals(second.getId(), usersManager.getIDFromUsername("same@mail.utoronto.ca"));
+        Assert.assertEquals(other.getId(), usersManager.getIDFromUsername("Same@mail.utoronto.ca"));
+        usersManager.removeUser(second.getId());
+        Assert.assertNull(usersManager.getIDFromUsername("same@mail.utoronto.ca"));
+    }
+
+    @Test
+    public void testUsernameIndexManyUsers() {
+        //test logins, conflict checks and lookups go through the index for every user
+        UsersManager usersManager = new UsersManager();
+        int n = 1000;
+        for (int i = 0; i < n; i++) {
+            usersManager.addUser(new Attendee("user" + i + "@mail.utoronto.ca", "password" + i));
+        }
+        for (int i = 0; i < n; i += 7) {
+            String username = "user" + i + "@mail.utoronto.ca";
+            String id = usersManager.authenticateUser(username, "password" + i);
+            Assert.assertNotNull(id);
+            Assert.assertEquals(id, usersManager.getIDFromUsername(username));
+            Assert.assertNull(usersManager.authenticateUser(username, "wrong"));
+            Assert.assertTrue(usersManager.checkConflicts(username));
+        }
+        Assert.assertFalse(usersManager.addUser("user5@mail.utoronto.ca", "password", "Attendee"));
+        String removed = usersManager.getIDFromUsername("user5@mail.utoronto.ca");
+        usersManager.removeUser(removed);
+        Assert.assertNull(usersManager.getIDFromUsername("user5@mail.utoronto.ca"));
+        Assert.assertFalse(usersManager.checkConflicts("user5@mail.utoronto.ca"));
+        Assert.assertTrue(usersManager.addUser("user5@mail.utoronto.ca", "password", "Attendee"));
+    }
+
+    @Test
+    public void testUsernamePrefixSearch() {
+        UsersManager usersManager = new UsersManager();
+        for (String name : new String[]{"bob@mail.com", "Alice@mail.com", "alan@mail.com", "albert@mail.com", "al@mail.com"}) {
+            usersManager.addUser(name, "password", "Attendee");
+        }
+        usersManager.addUser("alex@mail.com", "password", "Speaker");
+        List<String> found = usersManager.findUsersByPrefix("AL", null, 10);
+        Assert.assertEquals(5, found.size());
+        Assert.assertEquals("al@mail.com", usersManager.getUsernameFromID(found.get(0)));
+        Assert.assertEquals("alan@mail.com", usersManager.getUsernameFromID(found.get(1)));
+        Assert.assertEquals("Alice@mail.com", usersManager.getUsernameFromID(found.get(4)));
+        Assert.assertEquals(2, usersManager.findUsersByPrefix("al", null, 2).size());
+        Assert.assertEquals(Arrays.asList(usersManager.getIDFromUsername("alex@mail.com")),
+                usersManager.findUsersByPrefix("al", Role.SPEAKER, 10));
+        usersManager.removeUser(usersManager.getIDFromUsername("alan@mail.com"));
+        Assert.assertEquals(4, usersManager.findUsersByPrefix("al", null, 10).size());
+        Assert.assertEquals(0, usersManager.findUsersByPrefix("carol", null, 10).size());
+        Assert.assertEquals(5, usersManager.findUsersByPrefix("", null, 10).size());
+    }
+
+    @Test(timeout = 20000)
+    public void testUserSnapshots() throws InterruptedException {
+        UsersManager usersManager = new UsersManager(Arrays.asList(attendee, speaker, organizer));
+        List<String> first = usersManager.getAllUsers();
+        Assert.assertSame(first, usersManager.getAllUsers());
+        usersManager.addUser("attendee2@mail.utoronto.ca", "user123", "Attendee");
+        Assert.assertEquals(3, first.size());
+        Assert.assertEquals(4, usersManager.getAllUsers().size());
+        //readers see whole snapshots that only grow while a writer adds users
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                int last = 0;
+                for (int i = 0; i < 500; i++) {
+                    List<String> users = usersManager.getAllUsers();
+                    for (String id : users) {
+                        if (usersManager.fetchUser(id) == null) {
+                            failed.set(true);
+                        }
+                    }
+                    if (users.size() < last) {
+                        failed.set(true);
+                    }
+                    last = users.size();
+                }
+            });
+            readers[r].start();
+        }
+        for (int i = 0; i < 20000; i++) {
+            usersManager.addUser("user" + i + "@mail.utoronto.ca", "user123", "Attendee");
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        Assert.assertFalse(failed.get());
+        Assert.assertEquals(20004, usersManager.getAllUsers().size());
+    }
 }
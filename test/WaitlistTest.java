@@ -0,0 +1,129 @@
+import main.controllers.EventController;
+import main.controllers.ProgramController;
+import main.entities.Waitlist;
+import main.gateways.converters.WaitlistConverter;
+import main.usecases.EventBuilder;
+import main.usecases.UsersManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WaitlistTest {
+    ProgramController programController;
+    EventController eventController;
+    String eventId;
+    String speaker;
+    String user1;
+    String user2;
+    String user3;
+
+    @Before
+    public void setUp() {
+        programController = new ProgramController();
+        eventController = programController.getEventController();
+        UsersManager usersManager = programController.getUsersManager();
+        usersManager.addUser("speaker@email.com", "password", "Speaker");
+        usersManager.addUser("user1@email.com", "password", "Attendee");
+        usersManager.addUser("user2@email.com", "password", "Attendee");
+        usersManager.addUser("user3@email.com", "password", "Attendee");
+        speaker = usersManager.getIDFromUsername("speaker@email.com");
+        user1 = usersManager.getIDFromUsername("user1@email.com");
+        user2 = usersManager.getIDFromUsername("user2@email.com");
+        user3 = usersManager.getIDFromUsername("user3@email.com");
+
+        programController.getRoomManager().addRoom(1, 1);
+        EventBuilder eb = new EventBuilder();
+        eb.setTitle("Keynote");
+        eb.setTime(LocalDateTime.of(2020, 1, 1, 12, 0));
+        eb.setRoom(programController.getRoomManager().getRoomIDGivenRoomNum(1));
+        eb.setSpeaker(speaker);
+        eventController.createEvent(eb);
+        eventId = eventController.getEventId(0);
+    }
+
+    @Test
+    public void testPromotionOnCancel() {
+        Assert.assertTrue(eventController.signupEvent(eventId, user1));
+        Assert.assertFalse(eventController.signupEvent(eventId, user2));
+        Assert.assertTrue(eventController.isEventFull(eventId));
+        //test attendees can not wait for an event they are signed up for
+        Assert.assertFalse(eventController.joinWaitlist(eventId, user1));
+        Assert.assertTrue(eventController.joinWaitlist(eventId, user2));
+        Assert.assertTrue(eventController.joinWaitlist(eventId, user3));
+        Assert.assertFalse(eventController.joinWaitlist(eventId, user3));
+        Assert.assertEquals(2, eventController.getWaitlistSize(eventId));
+
+        //test the front of the waitlist gets the seat and a message
+        Assert.assertTrue(eventController.cancelEvent(eventId, user1));
+        Assert.assertTrue(eventController.getSingleEvent(eventId).hasAttendee(user2));
+        Assert.assertFalse(eventController.getSingleEvent(eventId).hasAttendee(user1));
+        Assert.assertEquals(1, eventController.getWaitlistSize(eventId));
+        Assert.assertEquals(1, programController.getInboxManager().getMessagesOfUser(user2).size());
+        Assert.assertEquals(0, programController.getInboxManager().getMessagesOfUser(user3).size());
+
+        //test leaving the waitlist does not touch the seats
+        Assert.assertTrue(eventController.cancelEvent(eventId, user3));
+        Assert.assertEquals(0, eventController.getWaitlistSize(eventId));
+        Assert.assertTrue(eventController.getSingleEvent(eventId).hasAttendee(user2));
+    }
+
+    @Test
+    public void testNoQueueJumping() {
+        Assert.assertTrue(eventController.signupEvent(eventId, user1));
+        Assert.assertTrue(eventController.joinWaitlist(eventId, user2));
+        Assert.assertTrue(eventController.joinWaitlist(eventId, user3));
+        programController.getRoomManager().getRoomGivenRoomNum(1).setCapacity(2);
+        //test a free seat goes to the front of the waitlist, not to a newcomer
+        programController.getUsersManager().addUser("user4@email.com", "password", "Attendee");
+        String user4 = programController.getUsersManager().getIDFromUsername("user4@email.com");
+        Assert.assertFalse(eventController.signupEvent(eventId, user4));
+        Assert.assertTrue(eventController.getSingleEvent(eventId).hasAttendee(user2));
+        Assert.assertFalse(eventController.getSingleEvent(eventId).hasAttendee(user4));
+        Assert.assertEquals(1, eventController.getWaitlistSize(eventId));
+    }
+
+    @Test
+    public void testWaitlistOnlyWhenFull() {
+        //test there is no waiting for an event with a free seat
+        Assert.assertFalse(eventController.joinWaitlist(eventId, user2));
+        Assert.assertEquals(0, eventController.getWaitlistSize(eventId));
+        Assert.assertTrue(eventController.signupEvent(eventId, user1));
+        Assert.assertTrue(eventController.joinWaitlist(eventId, user2));
+        //test once the waitlist is seated newcomers can sign up again
+        programController.getRoomManager().getRoomGivenRoomNum(1).setCapacity(3);
+        Assert.assertTrue(eventController.signupEvent(eventId, user3));
+        Assert.assertTrue(eventController.getSingleEvent(eventId).hasAttendee(user2));
+        Assert.assertEquals(0, eventController.getWaitlistSize(eventId));
+    }
+
+    @Test
+    public void testPromotionWithoutSpeaker() {
+        Assert.assertTrue(eventController.signupEvent(eventId, user1));
+        Assert.assertTrue(eventController.joinWaitlist(eventId, user2));
+        Assert.assertTrue(eventController.removeSpeaker(eventId, speaker));
+        //test the seat is still given, but nobody sends the notice
+        Assert.assertTrue(eventController.cancelEvent(eventId, user1));
+        Assert.assertTrue(eventController.getSingleEvent(eventId).hasAttendee(user2));
+        Assert.assertEquals(0, programController.getInboxManager().getMessagesOfUser(user2).size());
+    }
+
+    @Test
+    public void testConverterKeepsOrder() {
+        Waitlist waitlist = new Waitlist(eventId);
+        waitlist.add(user3);
+        waitlist.add(user1);
+        waitlist.add(user2);
+        List<Waitlist> waitlists = new ArrayList<>();
+        waitlists.add(waitlist);
+        WaitlistConverter converter = new WaitlistConverter();
+        List<Waitlist> loaded = converter.convertFromBeans(converter.convertToBeans(waitlists));
+        Assert.assertEquals(1, loaded.size());
+        Assert.assertEquals(eventId, loaded.get(0).getEventId());
+        Assert.assertEquals(waitlist.getAttendeesID(), loaded.get(0).getAttendeesID());
+        Assert.assertEquals(user3, loaded.get(0).peek());
+    }
+}